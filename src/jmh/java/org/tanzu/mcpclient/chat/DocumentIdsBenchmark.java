@@ -0,0 +1,48 @@
+package org.tanzu.mcpclient.chat;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Per-request handling of the selected documents: {@link ChatController#determineDocumentIds}
+ * on the request parameters and {@link ChatService#buildDocumentFilterExpression} on its
+ * result, for 1 to 500 document IDs in the UUID format used by the document upload.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DocumentIdsBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    public int documentCount;
+
+    private Optional<List<String>> documentIdsParameter;
+    private List<String> documentIds;
+
+    @Setup
+    public void setUp() {
+        documentIds = IntStream.range(0, documentCount)
+                .mapToObj(i -> UUID.nameUUIDFromBytes(("document-" + i).getBytes()).toString())
+                .toList();
+        documentIdsParameter = Optional.of(documentIds);
+    }
+
+    @Benchmark
+    public List<String> determineDocumentIds() {
+        return ChatController.determineDocumentIds(Optional.empty(), documentIdsParameter);
+    }
+
+    @Benchmark
+    public Filter.Expression buildDocumentFilterExpression() {
+        return ChatService.buildDocumentFilterExpression(documentIds);
+    }
+}
@@ -0,0 +1,47 @@
+package org.tanzu.mcpclient.prompt;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Resolving the MCP server of a prompt, which parses every configured server URL until the
+ * server ID matches, for 1 to 50 servers. The lookup targets the last server, the worst case.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PromptServerLookupBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int serverCount;
+
+    private PromptResolutionService promptResolutionService;
+    private String lastServerUrl;
+    private String lastServerId;
+
+    @Setup
+    public void setUp() {
+        List<String> serverUrls = IntStream.range(0, serverCount)
+                .mapToObj(i -> "https://mcp-server-" + i + ".apps.example.com:8443/sse")
+                .toList();
+        promptResolutionService = new PromptResolutionService(null, serverUrls, null);
+        lastServerUrl = serverUrls.getLast();
+        lastServerId = PromptResolutionService.generateServerId(lastServerUrl);
+    }
+
+    @Benchmark
+    public String generateServerId() {
+        return PromptResolutionService.generateServerId(lastServerUrl);
+    }
+
+    @Benchmark
+    public String findServerUrl() {
+        return promptResolutionService.findServerUrl(lastServerId);
+    }
+}
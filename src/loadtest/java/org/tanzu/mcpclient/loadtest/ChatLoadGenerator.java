@@ -0,0 +1,160 @@
+package org.tanzu.mcpclient.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Closed-loop load generator: each of {@code concurrency} virtual threads sends one
+ * {@code /chat} request after the other and reads the SSE stream to its end. Requests
+ * started during the warmup are not reported. While the load runs, the heap and thread
+ * count of the application are sampled from its Prometheus endpoint once per second.
+ */
+final class ChatLoadGenerator {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final URI appUri;
+    private final LoadTestOptions options;
+
+    ChatLoadGenerator(URI appUri, LoadTestOptions options) {
+        this.appUri = appUri;
+        this.options = options;
+    }
+
+    LoadTestReport run() throws InterruptedException {
+        long measureFrom = System.nanoTime() + options.warmup().toNanos();
+        long measureUntil = measureFrom + options.duration().toNanos();
+        ConcurrentLinkedQueue<LoadTestReport.Sample> samples = new ConcurrentLinkedQueue<>();
+        AtomicLong peakHeapBytes = new AtomicLong();
+        AtomicLong peakThreads = new AtomicLong();
+
+        URI chatUri = appUri.resolve("/chat?chat=" + URLEncoder.encode(options.prompt(), StandardCharsets.UTF_8));
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.concurrency(); i++) {
+                workers.execute(() -> {
+                    while (System.nanoTime() < measureUntil) {
+                        LoadTestReport.Sample sample = chat(chatUri);
+                        if (sample.startedAt() >= measureFrom && sample.startedAt() < measureUntil) {
+                            samples.add(sample);
+                        }
+                    }
+                });
+            }
+            workers.execute(() -> {
+                while (System.nanoTime() < measureUntil) {
+                    sampleResources(peakHeapBytes, peakThreads);
+                    sleep(Duration.ofSeconds(1));
+                }
+            });
+        }
+
+        return new LoadTestReport(options, new ArrayList<>(samples), peakHeapBytes.get(), peakThreads.get());
+    }
+
+    private LoadTestReport.Sample chat(URI chatUri) {
+        long started = System.nanoTime();
+        long firstToken = 0;
+        int tokens = 0;
+        boolean failed = false;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(chatUri).header("Accept", "text/event-stream").GET().build();
+            HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+            if (response.statusCode() != 200) {
+                response.body().close();
+                return new LoadTestReport.Sample(started, 0, System.nanoTime(), 0, true);
+            }
+
+            String event = "message";
+            try (Stream<String> lines = response.body()) {
+                for (Iterator<String> iterator = lines.iterator(); iterator.hasNext(); ) {
+                    String line = iterator.next();
+                    if (line.startsWith("event:")) {
+                        event = line.substring("event:".length()).trim();
+                    } else if (line.startsWith("data:")) {
+                        if ("message".equals(event)) {
+                            if (firstToken == 0) {
+                                firstToken = System.nanoTime();
+                            }
+                            tokens += countTokens(line.substring("data:".length()));
+                        } else if ("error".equals(event)) {
+                            failed = true;
+                        }
+                    } else if (line.isEmpty()) {
+                        event = "message";
+                    }
+                }
+            }
+        } catch (IOException e) {
+            failed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed = true;
+        }
+        return new LoadTestReport.Sample(started, firstToken, System.nanoTime(), tokens, failed || firstToken == 0);
+    }
+
+    /**
+     * The stub model streams whitespace-separated tokens; coalesced frames carry several.
+     */
+    private int countTokens(String data) throws IOException {
+        String content = objectMapper.readTree(data).path("content").asText();
+        int count = 0;
+        for (String token : content.split("\\s+")) {
+            if (!token.isEmpty()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void sampleResources(AtomicLong peakHeapBytes, AtomicLong peakThreads) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(appUri.resolve("/actuator/prometheus")).GET().build();
+            String metrics = httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+            long heapBytes = 0;
+            for (String line : metrics.split("\n")) {
+                if (line.startsWith("jvm_memory_used_bytes{") && line.contains("area=\"heap\"")) {
+                    heapBytes += (long) value(line);
+                } else if (line.startsWith("jvm_threads_live_threads ")) {
+                    peakThreads.accumulateAndGet((long) value(line), Math::max);
+                }
+            }
+            peakHeapBytes.accumulateAndGet(heapBytes, Math::max);
+        } catch (IOException e) {
+            // A missed sample only lowers the resolution of the peak values
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double value(String line) {
+        return Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
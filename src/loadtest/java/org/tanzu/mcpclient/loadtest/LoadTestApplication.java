@@ -0,0 +1,36 @@
+package org.tanzu.mcpclient.loadtest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+import org.tanzu.mcpclient.CfMcpClientApplication;
+
+/**
+ * Starts the application under test. The only difference to {@link CfMcpClientApplication}
+ * is a filter chain that lets the load generator call {@code /chat} and sample
+ * {@code /actuator/prometheus} without an OAuth2 login.
+ */
+public class LoadTestApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(new Class<?>[]{CfMcpClientApplication.class, LoadTestSecurityConfiguration.class}, args);
+    }
+
+    @Configuration
+    static class LoadTestSecurityConfiguration {
+
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        SecurityFilterChain loadTestSecurityFilterChain(HttpSecurity http) throws Exception {
+            return http
+                    .securityMatcher("/chat", "/actuator/prometheus")
+                    .csrf(csrf -> csrf.disable())
+                    .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.tanzu.mcpclient.loadtest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a complete load test on one machine without network access: starts the stub model
+ * and the stub MCP server, launches the application in its own JVM against them, drives
+ * {@code /chat} with {@link ChatLoadGenerator} and prints a {@link LoadTestReport}. The
+ * application log is written to {@code target/loadtest-app.log}.
+ *
+ * <p>Arguments are {@code key=value} pairs, see {@link LoadTestOptions}.</p>
+ */
+public class LoadTestHarness {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        try (StubChatModelServer model = new StubChatModelServer(options.tokens(), options.tokensPerSecond(),
+                options.firstTokenLatency(), options.toolCallsPerTurn());
+             StubMcpServer mcpServer = new StubMcpServer(options.mcpTools(), options.toolDelay())) {
+
+            int port = freePort();
+            Process app = startApplication(port, model, mcpServer, options);
+            try {
+                URI appUri = URI.create("http://127.0.0.1:" + port);
+                awaitHealthy(appUri, app);
+                new ChatLoadGenerator(appUri, options).run().print(System.out);
+            } finally {
+                app.destroy();
+                app.waitFor();
+            }
+        }
+    }
+
+    private static Process startApplication(int port, StubChatModelServer model, StubMcpServer mcpServer,
+                                            LoadTestOptions options) throws IOException {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                LoadTestApplication.class.getName(),
+                "--server.port=" + port,
+                "--spring.ai.openai.base-url=" + model.baseUrl(),
+                "--spring.ai.openai.api-key=stub",
+                "--spring.ai.openai.chat.options.model=" + StubChatModelServer.MODEL,
+                // The login flow is never used, but the application requires a client registration
+                "--spring.security.oauth2.client.registration.loadtest.client-id=loadtest",
+                "--spring.security.oauth2.client.registration.loadtest.client-secret=loadtest",
+                "--spring.security.oauth2.client.registration.loadtest.authorization-grant-type=authorization_code",
+                "--spring.security.oauth2.client.registration.loadtest.redirect-uri=http://127.0.0.1/login/oauth2/code/loadtest",
+                "--spring.security.oauth2.client.provider.loadtest.authorization-uri=http://127.0.0.1/authorize",
+                "--spring.security.oauth2.client.provider.loadtest.token-uri=http://127.0.0.1/token",
+                // No database runs next to the harness; its health indicator would keep the app DOWN
+                "--management.health.db.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.io.modelcontextprotocol=WARN"));
+        command.addAll(options.appProperties());
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File("target/loadtest-app.log"));
+        // MCP servers are discovered from Cloud Foundry service bindings
+        builder.environment().put("VCAP_SERVICES", """
+                {"user-provided":[{"name":"stub-mcp","label":"user-provided","tags":[],"credentials":{"mcpServiceURL":"%s"}}]}"""
+                .formatted(mcpServer.url()));
+        return builder.start();
+    }
+
+    private static void awaitHealthy(URI appUri, Process app) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(appUri.resolve("/actuator/health")).GET().build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!app.isAlive()) {
+                throw new IllegalStateException("Application exited during startup, see target/loadtest-app.log");
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Application did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
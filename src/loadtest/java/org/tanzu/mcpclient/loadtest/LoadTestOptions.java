@@ -0,0 +1,64 @@
+package org.tanzu.mcpclient.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, given as {@code key=value} arguments. Arguments starting
+ * with {@code app.} are passed to the application under test as Spring properties, e.g.
+ * {@code app.chat.transport.mode=reactive}.
+ *
+ * @param concurrency       number of concurrent chat streams
+ * @param warmup            initial period whose requests are not reported
+ * @param duration          measured period after the warmup
+ * @param prompt            chat message sent with every request
+ * @param tokens            tokens streamed by the stub model per answer
+ * @param tokensPerSecond   streaming rate of the stub model per answer
+ * @param firstTokenLatency delay of the stub model before its first token
+ * @param mcpTools          number of tools published by the stub MCP server
+ * @param toolDelay         time the stub MCP server takes per tool call
+ * @param toolCallsPerTurn  tools the stub model calls before answering, 0 to answer directly
+ * @param appProperties     additional properties for the application under test
+ */
+record LoadTestOptions(int concurrency, Duration warmup, Duration duration, String prompt,
+                       int tokens, double tokensPerSecond, Duration firstTokenLatency,
+                       int mcpTools, Duration toolDelay, int toolCallsPerTurn,
+                       List<String> appProperties) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        List<String> appProperties = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            String key = arg.substring(0, separator);
+            String value = arg.substring(separator + 1);
+            if (key.startsWith("app.")) {
+                appProperties.add("--" + key.substring("app.".length()) + "=" + value);
+            } else {
+                values.put(key, value);
+            }
+        }
+
+        return new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("concurrency", "20")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "30s")),
+                values.getOrDefault("prompt", "Summarize the state of the system"),
+                Integer.parseInt(values.getOrDefault("tokens", "200")),
+                Double.parseDouble(values.getOrDefault("tokens-per-second", "50")),
+                DurationStyle.detectAndParse(values.getOrDefault("first-token-latency", "300ms")),
+                Integer.parseInt(values.getOrDefault("mcp-tools", "4")),
+                DurationStyle.detectAndParse(values.getOrDefault("tool-delay", "100ms")),
+                Integer.parseInt(values.getOrDefault("tool-calls-per-turn", "0")),
+                List.copyOf(appProperties)
+        );
+    }
+}
@@ -0,0 +1,70 @@
+package org.tanzu.mcpclient.loadtest;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Results of a load test run and their summary.
+ */
+record LoadTestReport(LoadTestOptions options, List<Sample> samples, long peakHeapBytes, long peakThreads) {
+
+    /**
+     * One chat request; times are {@link System#nanoTime()} values, {@code firstTokenAt} is 0
+     * if no content arrived.
+     */
+    record Sample(long startedAt, long firstTokenAt, long finishedAt, int tokens, boolean failed) {
+
+        long timeToFirstToken() {
+            return firstTokenAt - startedAt;
+        }
+
+        long latency() {
+            return finishedAt - startedAt;
+        }
+
+        /**
+         * Streaming rate after the first token, in tokens per second.
+         */
+        long tokensPerSecond() {
+            long streaming = finishedAt - firstTokenAt;
+            return streaming > 0 ? tokens * 1_000_000_000L / streaming : 0;
+        }
+    }
+
+    void print(PrintStream out) {
+        List<Sample> succeeded = samples.stream().filter(sample -> !sample.failed()).toList();
+        double seconds = options.duration().toNanos() / 1e9;
+        long totalTokens = succeeded.stream().mapToLong(Sample::tokens).sum();
+
+        out.println();
+        out.printf("Load test: concurrency=%d, duration=%s, stub model %d tokens at %.0f tokens/s after %s, %d MCP tools at %s, %d tool calls per turn%n",
+                options.concurrency(), options.duration(), options.tokens(), options.tokensPerSecond(),
+                options.firstTokenLatency(), options.mcpTools(), options.toolDelay(), options.toolCallsPerTurn());
+        out.printf("  requests        %d (%d failed), %.1f/s%n", samples.size(), samples.size() - succeeded.size(),
+                succeeded.size() / seconds);
+        out.printf("  TTFT            p50 %s  p99 %s%n",
+                millis(percentile(succeeded, Sample::timeToFirstToken, 50)),
+                millis(percentile(succeeded, Sample::timeToFirstToken, 99)));
+        out.printf("  latency         p50 %s  p99 %s%n",
+                millis(percentile(succeeded, Sample::latency, 50)),
+                millis(percentile(succeeded, Sample::latency, 99)));
+        out.printf("  tokens/s        p50 %d per stream, %.0f total%n",
+                percentile(succeeded, Sample::tokensPerSecond, 50), totalTokens / seconds);
+        out.printf("  peak heap       %d MB%n", peakHeapBytes / (1024 * 1024));
+        out.printf("  peak threads    %d%n", peakThreads);
+    }
+
+    private static long percentile(List<Sample> samples, ToLongFunction<Sample> metric, int percentile) {
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        long[] values = samples.stream().mapToLong(metric).sorted().toArray();
+        int rank = (int) Math.ceil(percentile / 100.0 * values.length);
+        return values[Math.max(0, Math.min(values.length, rank) - 1)];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f ms", nanos / 1e6);
+    }
+}
@@ -0,0 +1,135 @@
+package org.tanzu.mcpclient.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * OpenAI-compatible chat completions endpoint that streams a fixed number of tokens at a
+ * fixed rate after a fixed first-token latency. If {@code toolCallsPerTurn} is positive and
+ * the request offers tools, the first turn of a conversation calls that many of them instead
+ * of answering, so that every answer also exercises the MCP tool path.
+ */
+final class StubChatModelServer implements AutoCloseable {
+
+    static final String MODEL = "stub-model";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int tokens;
+    private final long tokenIntervalNanos;
+    private final Duration firstTokenLatency;
+    private final int toolCallsPerTurn;
+    private final HttpServer server;
+
+    StubChatModelServer(int tokens, double tokensPerSecond, Duration firstTokenLatency, int toolCallsPerTurn)
+            throws IOException {
+        this.tokens = tokens;
+        this.tokenIntervalNanos = (long) (1_000_000_000L / tokensPerSecond);
+        this.firstTokenLatency = firstTokenLatency;
+        this.toolCallsPerTurn = toolCallsPerTurn;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/v1/chat/completions", this::complete);
+        this.server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void complete(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            if (!request.path("stream").asBoolean(false)) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream body = exchange.getResponseBody();
+
+            long next = System.nanoTime() + firstTokenLatency.toNanos();
+            sleepUntil(next);
+            JsonNode tools = request.path("tools");
+            if (toolCallsPerTurn > 0 && !tools.isEmpty() && !hasToolResults(request)) {
+                for (int i = 0; i < Math.min(toolCallsPerTurn, tools.size()); i++) {
+                    send(body, toolCallDelta(i, tools.get(i).path("function").path("name").asText()), null);
+                }
+                send(body, objectMapper.createObjectNode(), "tool_calls");
+            } else {
+                for (int i = 0; i < tokens; i++) {
+                    send(body, objectMapper.createObjectNode().put("content", "tok" + i + " "), null);
+                    next += tokenIntervalNanos;
+                    sleepUntil(next);
+                }
+                send(body, objectMapper.createObjectNode(), "stop");
+            }
+            body.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+        }
+    }
+
+    private static boolean hasToolResults(JsonNode request) {
+        for (JsonNode message : request.path("messages")) {
+            if ("tool".equals(message.path("role").asText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ObjectNode toolCallDelta(int index, String toolName) {
+        ObjectNode delta = objectMapper.createObjectNode().put("role", "assistant");
+        ObjectNode toolCall = delta.putArray("tool_calls").addObject()
+                .put("index", index)
+                .put("id", "call_" + index)
+                .put("type", "function");
+        toolCall.putObject("function")
+                .put("name", toolName)
+                .put("arguments", "{\"query\":\"load test\"}");
+        return delta;
+    }
+
+    private void send(OutputStream body, ObjectNode delta, String finishReason) throws IOException {
+        ObjectNode chunk = objectMapper.createObjectNode()
+                .put("id", "chatcmpl-stub")
+                .put("object", "chat.completion.chunk")
+                .put("created", System.currentTimeMillis() / 1000)
+                .put("model", MODEL);
+        ArrayNode choices = chunk.putArray("choices");
+        ObjectNode choice = choices.addObject().put("index", 0);
+        choice.set("delta", delta);
+        if (finishReason != null) {
+            choice.put("finish_reason", finishReason);
+        } else {
+            choice.putNull("finish_reason");
+        }
+        body.write(("data: " + objectMapper.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        body.flush();
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.tanzu.mcpclient.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.server.transport.HttpServletSseServerTransportProvider;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * MCP server on the SSE transport, the transport the client uses, publishing
+ * {@code toolCount} tools that each answer after {@code toolDelay}. Runs on an embedded
+ * Tomcat from the application's own dependencies.
+ */
+final class StubMcpServer implements AutoCloseable {
+
+    private static final String INPUT_SCHEMA = """
+            {"type":"object","properties":{"query":{"type":"string"}}}""";
+
+    // Held so that the levels stay in effect; the stub's threads outlive its context by design
+    private static final java.util.logging.Logger TOMCAT_LOGGER = java.util.logging.Logger.getLogger("org.apache");
+
+    private final Tomcat tomcat = new Tomcat();
+    private final McpSyncServer mcpServer;
+
+    StubMcpServer(int toolCount, Duration toolDelay) throws IOException, LifecycleException {
+        HttpServletSseServerTransportProvider transport = HttpServletSseServerTransportProvider.builder()
+                .objectMapper(new ObjectMapper())
+                .messageEndpoint("/mcp/message")
+                .build();
+
+        List<McpServerFeatures.SyncToolSpecification> tools = new ArrayList<>();
+        for (int i = 0; i < toolCount; i++) {
+            String name = "stub_tool_" + i;
+            tools.add(new McpServerFeatures.SyncToolSpecification(
+                    new McpSchema.Tool(name, "Stub tool " + i + " for load testing", INPUT_SCHEMA),
+                    (exchange, arguments) -> {
+                        sleep(toolDelay);
+                        return new McpSchema.CallToolResult(name + " result for " + arguments, false);
+                    }));
+        }
+        this.mcpServer = McpServer.sync(transport)
+                .serverInfo("stub-mcp-server", "1.0.0")
+                .capabilities(McpSchema.ServerCapabilities.builder().tools(true).build())
+                .tools(tools)
+                .build();
+
+        TOMCAT_LOGGER.setLevel(Level.SEVERE);
+        tomcat.setBaseDir(Files.createTempDirectory("stub-mcp").toString());
+        tomcat.setHostname("127.0.0.1");
+        tomcat.setPort(0);
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "mcp", transport).setAsyncSupported(true);
+        context.addServletMappingDecoded("/*", "mcp");
+        tomcat.getConnector();
+        tomcat.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + tomcat.getConnector().getLocalPort();
+    }
+
+    @Override
+    public void close() throws LifecycleException {
+        mcpServer.closeGracefully();
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    private static void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
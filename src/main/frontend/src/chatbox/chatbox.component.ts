@@ -30,6 +30,7 @@ import {
   PromptSelectionResult
 } from '../prompt-selection-dialog/prompt-selection-dialog.component';
 import {PromptResolutionService} from '../services/prompt-resolution.service';
+import {ChatSocketRequest, ChatSocketService} from '../services/chat-socket.service';
 import {MatTooltip} from '@angular/material/tooltip';
 import {ThinkTagParser} from './think-tag-parser';
 
@@ -193,6 +194,7 @@ export class ChatboxComponent implements OnDestroy {
   private protocol = '';
   private thinkTagParser = new ThinkTagParser();
   private updateBatchTimeout?: number;
+  private activeStreamId?: number;
   private pendingUpdate: {
     mainContent: string;
     reasoningContent: string;
@@ -206,7 +208,8 @@ export class ChatboxComponent implements OnDestroy {
     @Inject(DOCUMENT) private document: Document,
     private ngZone: NgZone,
     private dialog: MatDialog,
-    private promptResolutionService: PromptResolutionService
+    private promptResolutionService: PromptResolutionService,
+    private chatSocketService: ChatSocketService
   ) {
     // Set up host and protocol
     if (this.document.location.hostname === 'localhost') {
@@ -221,6 +224,10 @@ export class ChatboxComponent implements OnDestroy {
   }
   
   ngOnDestroy(): void {
+    if (this.activeStreamId !== undefined) {
+      this.chatSocketService.cancel(this.activeStreamId);
+    }
+
     if (this.updateBatchTimeout) {
       clearTimeout(this.updateBatchTimeout);
     }
@@ -621,7 +628,67 @@ export class ChatboxComponent implements OnDestroy {
     this.sendChatMessage();
   }
 
+  /**
+   * Streams the answer over the chat WebSocket shared by all requests of this tab,
+   * or over a dedicated EventSource when the WebSocket cannot be opened.
+   */
   private streamChatResponse(params: HttpParams): Promise<void> {
+    const request: ChatSocketRequest = {
+      chat: params.get('chat') ?? '',
+      documentIds: params.get('documentIds')?.split(',') ?? []
+    };
+
+    return new Promise((resolve, reject) => {
+      let isFirstChunk = true;
+
+      const finish = () => {
+        this.activeStreamId = undefined;
+        this.ngZone.run(() => {
+          this._isStreaming.set(false);
+          this._isConnecting.set(false);
+        });
+        resolve();
+      };
+
+      this.chatSocketService.open(request, {
+        onEvent: (name, data) => {
+          if (name === 'message') {
+            this.ngZone.run(() => {
+              if (isFirstChunk) {
+                this.setBotMessageTyping(false);
+                isFirstChunk = false;
+              }
+              if (data?.content) {
+                this.updateBotMessage(data.content);
+              }
+            });
+          } else if (name === 'degraded') {
+            console.warn('MCP servers unavailable for this request:', data?.servers);
+          } else if (name === 'error') {
+            this.ngZone.run(() => this.handleServerError(data as ErrorInfo));
+            finish();
+          } else if (name === 'close') {
+            finish();
+          }
+        },
+        onConnectionLost: () => {
+          this.ngZone.run(() => this.handleChatError('Sorry, I encountered an error processing your request.'));
+          finish();
+        }
+      }).then(streamId => {
+        this.activeStreamId = streamId;
+        this.ngZone.run(() => {
+          this._isConnecting.set(false);
+          this._isStreaming.set(true);
+        });
+      }, () => {
+        console.warn('Chat WebSocket unavailable, falling back to EventSource');
+        this.streamChatResponseOverSse(params).then(resolve, reject);
+      });
+    });
+  }
+
+  private streamChatResponseOverSse(params: HttpParams): Promise<void> {
     return new Promise((resolve, reject) => {
       const url = `${this.protocol}//${this.host}/chat?${params.toString()}`;
 
@@ -630,6 +697,9 @@ export class ChatboxComponent implements OnDestroy {
       });
 
       let isFirstChunk = true;
+      // The browser reconnects with Last-Event-ID and the server replays what was missed
+      let reconnectAttempts = 0;
+      const maxReconnectAttempts = 3;
 
       eventSource.onopen = () => {
         console.log('EventSource connection opened');
@@ -640,6 +710,7 @@ export class ChatboxComponent implements OnDestroy {
       };
 
       eventSource.onmessage = (event) => {
+        reconnectAttempts = 0;
         this.ngZone.run(() => {
           if (isFirstChunk) {
             this.setBotMessageTyping(false);
@@ -662,6 +733,11 @@ export class ChatboxComponent implements OnDestroy {
       };
 
       eventSource.onerror = (error) => {
+        if (eventSource.readyState === EventSource.CONNECTING && reconnectAttempts < maxReconnectAttempts) {
+          reconnectAttempts++;
+          console.warn('EventSource connection lost, resuming stream');
+          return;
+        }
         console.error('EventSource error:', error);
         eventSource.close();
         this.handleChatError('Sorry, I encountered an error processing your request.');
@@ -670,6 +746,10 @@ export class ChatboxComponent implements OnDestroy {
 
       // Listen for error events
       eventSource.addEventListener('error', (event: MessageEvent) => {
+        if (!event.data) {
+          // Connection errors carry no details and are handled by onerror
+          return;
+        }
         this.ngZone.run(() => {
           try {
             const errorDetails: ErrorInfo = JSON.parse(event.data);
@@ -683,6 +763,16 @@ export class ChatboxComponent implements OnDestroy {
         resolve();
       });
 
+      // Listen for MCP servers skipped for this request
+      eventSource.addEventListener('degraded', (event: MessageEvent) => {
+        try {
+          const degraded = JSON.parse(event.data);
+          console.warn('MCP servers unavailable for this request:', degraded.servers);
+        } catch (e) {
+          console.warn('Failed to parse degraded servers event:', e);
+        }
+      });
+
       // Listen for successful completion
       eventSource.addEventListener('close', () => {
         eventSource.close();
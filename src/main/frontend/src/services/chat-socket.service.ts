@@ -0,0 +1,151 @@
+import { Injectable, Inject } from '@angular/core';
+import { DOCUMENT } from '@angular/common';
+
+export interface ChatSocketRequest {
+  chat: string;
+  documentIds: string[];
+}
+
+export interface ChatSocketListener {
+  onEvent(name: string, data: any): void;
+  onConnectionLost(): void;
+}
+
+interface OpenStream {
+  request: ChatSocketRequest;
+  listener: ChatSocketListener;
+  lastEventId?: string;
+  unacknowledged: number;
+}
+
+// Events a stream may receive before the client has to grant more
+const CREDITS = 32;
+const MAX_RECONNECT_ATTEMPTS = 3;
+
+/**
+ * Multiplexes the chat streams of this browser tab over one WebSocket to /chat/ws.
+ * The client opens ("o"), grants credits to ("c") and cancels ("x") streams, the server
+ * sends their events ("e"). When the connection drops it is reopened and every stream
+ * resumed after the last event it received.
+ */
+@Injectable({
+  providedIn: 'root'
+})
+export class ChatSocketService {
+
+  private socket?: WebSocket;
+  private connecting?: Promise<WebSocket>;
+  private nextStreamId = 1;
+  private reconnectAttempts = 0;
+  private readonly streams = new Map<number, OpenStream>();
+
+  constructor(@Inject(DOCUMENT) private document: Document) {}
+
+  /**
+   * Open a chat stream, rejecting when no WebSocket connection can be established
+   */
+  async open(request: ChatSocketRequest, listener: ChatSocketListener): Promise<number> {
+    const socket = await this.connect();
+    const id = this.nextStreamId++;
+    this.streams.set(id, { request, listener, unacknowledged: 0 });
+    socket.send(JSON.stringify(['o', id, { chat: request.chat, documentIds: request.documentIds, credits: CREDITS }]));
+    return id;
+  }
+
+  /**
+   * Cancel a stream, which also stops its generation on the server
+   */
+  cancel(id: number): void {
+    if (this.streams.delete(id) && this.socket?.readyState === WebSocket.OPEN) {
+      this.socket.send(JSON.stringify(['x', id]));
+    }
+  }
+
+  private connect(): Promise<WebSocket> {
+    if (this.socket?.readyState === WebSocket.OPEN) {
+      return Promise.resolve(this.socket);
+    }
+    if (!this.connecting) {
+      this.connecting = new Promise((resolve, reject) => {
+        const socket = new WebSocket(this.getSocketUrl());
+        socket.onopen = () => {
+          this.socket = socket;
+          this.connecting = undefined;
+          resolve(socket);
+        };
+        socket.onmessage = (message) => this.handleFrame(socket, message.data);
+        socket.onclose = () => {
+          this.connecting = undefined;
+          if (this.socket === socket) {
+            this.socket = undefined;
+            this.resumeStreams();
+          } else {
+            reject(new Error('Chat WebSocket could not be opened'));
+          }
+        };
+      });
+    }
+    return this.connecting;
+  }
+
+  private handleFrame(socket: WebSocket, payload: string): void {
+    const [type, id, name, data, eventId] = JSON.parse(payload);
+    const stream = this.streams.get(id);
+    if (type !== 'e' || !stream) {
+      return;
+    }
+    this.reconnectAttempts = 0;
+    if (eventId) {
+      stream.lastEventId = eventId;
+    }
+
+    const last = name === 'close' || name === 'error';
+    if (last) {
+      this.streams.delete(id);
+    }
+    stream.listener.onEvent(name, data);
+
+    if (!last && ++stream.unacknowledged >= CREDITS / 2) {
+      socket.send(JSON.stringify(['c', id, stream.unacknowledged]));
+      stream.unacknowledged = 0;
+    }
+  }
+
+  private resumeStreams(): void {
+    if (this.streams.size === 0) {
+      return;
+    }
+    if (this.reconnectAttempts++ >= MAX_RECONNECT_ATTEMPTS) {
+      this.failStreams();
+      return;
+    }
+    console.warn('Chat WebSocket connection lost, resuming streams');
+    this.connect().then(socket => {
+      this.streams.forEach((stream, id) => {
+        if (!stream.lastEventId) {
+          // Nothing to resume from, asking again would answer the message twice
+          this.streams.delete(id);
+          stream.listener.onConnectionLost();
+          return;
+        }
+        stream.unacknowledged = 0;
+        socket.send(JSON.stringify(['o', id, { lastEventId: stream.lastEventId, credits: CREDITS }]));
+      });
+    }, () => this.resumeStreams());
+  }
+
+  private failStreams(): void {
+    const lost = [...this.streams.values()];
+    this.streams.clear();
+    lost.forEach(stream => stream.listener.onConnectionLost());
+  }
+
+  /**
+   * Get the WebSocket URL based on current environment
+   */
+  private getSocketUrl(): string {
+    const host = this.document.location.hostname === 'localhost' ? 'localhost:8080' : this.document.location.host;
+    const protocol = this.document.location.protocol === 'https:' ? 'wss:' : 'ws:';
+    return `${protocol}//${host}/chat/ws`;
+  }
+}
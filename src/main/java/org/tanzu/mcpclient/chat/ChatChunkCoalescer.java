@@ -0,0 +1,207 @@
+package org.tanzu.mcpclient.chat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.metrics.ChatStreamMetrics;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces the token chunks of a streamed answer into fewer, larger SSE frames.
+ * The first chunk is emitted immediately so time-to-first-token is unchanged; after that,
+ * chunks are buffered until the window elapses or {@code maxFrameBytes} have collected,
+ * whichever comes first. A window of zero disables coalescing.
+ */
+@Component
+public class ChatChunkCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatChunkCoalescer.class);
+
+    private final Duration window;
+    private final int maxFrameBytes;
+    // Flushing writes to the client, which may block, so timers must not run on the parallel scheduler
+    private final Scheduler flushScheduler = Schedulers.boundedElastic();
+
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder frameBytes = new LongAdder();
+
+    public ChatChunkCoalescer(@Value("${chat.stream.coalesce.window:25ms}") Duration window,
+                              @Value("${chat.stream.coalesce.max-frame-bytes:2048}") int maxFrameBytes) {
+        this.window = window;
+        this.maxFrameBytes = maxFrameBytes;
+
+        logger.info("Chat stream coalescing configured: window={}, maxFrameBytes={}", window, maxFrameBytes);
+    }
+
+    /**
+     * Returns a stream that emits the concatenated content of the given chunks as frames.
+     */
+    public Flux<String> coalesce(Flux<String> chunkStream) {
+        return Flux.create(sink -> {
+            Frames frames = new Frames(sink);
+            Disposable upstream = chunkStream.subscribe(frames::onChunk, frames::onError, frames::onComplete);
+            sink.onDispose(() -> {
+                upstream.dispose();
+                frames.finish();
+            });
+        });
+    }
+
+    public ChatStreamMetrics getMetrics() {
+        long responseCount = responses.sum();
+        long frameCount = frames.sum();
+        return new ChatStreamMetrics(
+                window.toMillis(),
+                maxFrameBytes,
+                responseCount,
+                chunks.sum(),
+                frameCount,
+                responseCount > 0 ? (double) frameCount / responseCount : 0.0,
+                frameCount > 0 ? (double) frameBytes.sum() / frameCount : 0.0
+        );
+    }
+
+    /**
+     * UTF-8 encoded length of a string, without encoding it.
+     */
+    static int utf8Length(CharSequence text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Buffering state of one response stream. Chunks arrive on the model's thread while
+     * window flushes run on the flush scheduler, so all access is guarded by a lock
+     * (not {@code synchronized}, as subscribers may run on virtual threads).
+     */
+    private final class Frames {
+
+        private final FluxSink<String> sink;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final StringBuilder pending = new StringBuilder();
+        private int pendingBytes;
+        private int emittedFrames;
+        private Disposable flushTask;
+        private boolean finished;
+
+        Frames(FluxSink<String> sink) {
+            this.sink = sink;
+        }
+
+        void onChunk(String chunk) {
+            chunks.increment();
+            lock.lock();
+            try {
+                if (finished) {
+                    return;
+                }
+                pending.append(chunk);
+                pendingBytes += utf8Length(chunk);
+                if (emittedFrames == 0 || window.isZero() || pendingBytes >= maxFrameBytes) {
+                    flush();
+                } else if (flushTask == null) {
+                    flushTask = flushScheduler.schedule(this::onWindowElapsed, window.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onComplete() {
+            lock.lock();
+            try {
+                flush();
+                finish();
+            } finally {
+                lock.unlock();
+            }
+            sink.complete();
+        }
+
+        void onError(Throwable error) {
+            lock.lock();
+            try {
+                flush();
+                finish();
+            } finally {
+                lock.unlock();
+            }
+            sink.error(error);
+        }
+
+        /**
+         * Records the response once, whether it completed, failed or was cancelled.
+         */
+        void finish() {
+            lock.lock();
+            try {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+                cancelFlushTask();
+                responses.increment();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void onWindowElapsed() {
+            lock.lock();
+            try {
+                flushTask = null;
+                if (!finished) {
+                    flush();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void flush() {
+            cancelFlushTask();
+            if (pending.isEmpty()) {
+                return;
+            }
+            String frame = pending.toString();
+            frames.increment();
+            frameBytes.add(pendingBytes);
+            emittedFrames++;
+            pending.setLength(0);
+            pendingBytes = 0;
+            sink.next(frame);
+        }
+
+        private void cancelFlushTask() {
+            if (flushTask != null) {
+                flushTask.dispose();
+                flushTask = null;
+            }
+        }
+    }
+}
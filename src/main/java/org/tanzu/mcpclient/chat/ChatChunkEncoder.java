@@ -0,0 +1,176 @@
+package org.tanzu.mcpclient.chat;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Encodes chat chunks as {@code {"content":...}} JSON without building a map or running
+ * Jackson. The envelope and the JSON-escaped UTF-8 content are written straight into a
+ * buffer that is reused for every chunk of a stream, so the only allocation per chunk
+ * is the encoded data kept by the resumable stream. Transport frames around that data are
+ * written into the same kind of buffer, without decoding or re-encoding it.
+ *
+ * <p>Create one encoder per stream; instances are not thread-safe.</p>
+ */
+public class ChatChunkEncoder {
+
+    private static final byte[] ID_FIELD = "id:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EVENT_FIELD = "\nevent:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DATA_FIELD = "\ndata:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FRAME_SUFFIX = "\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CONTENT_PREFIX = "{\"content\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CONTENT_SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SOCKET_FRAME_PREFIX = "[\"e\",".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] buffer;
+    private int position;
+
+    public ChatChunkEncoder() {
+        this(512);
+    }
+
+    public ChatChunkEncoder(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * Returns a complete SSE event with an ID for already encoded UTF-8 data, ready to be
+     * passed to {@link org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter#send(Set)}
+     * and written in a single operation. The data must not contain line breaks.
+     */
+    public Set<DataWithMediaType> eventFrame(String id, String name, byte[] data) {
+        position = 0;
+        writeAscii(ID_FIELD, id);
+        writeAscii(EVENT_FIELD, name);
+        write(DATA_FIELD);
+        write(data);
+        write(FRAME_SUFFIX);
+        return Set.of(new DataWithMediaType(Arrays.copyOf(buffer, position), MediaType.TEXT_PLAIN));
+    }
+
+    /**
+     * Returns the WebSocket frame {@code ["e",streamId,"name",data,"eventId"]} for already
+     * encoded JSON data; empty data and a missing event ID are sent as {@code null}.
+     */
+    public byte[] socketFrame(long streamId, String name, byte[] data, String eventId) {
+        position = 0;
+        write(SOCKET_FRAME_PREFIX);
+        writeAscii(Long.toString(streamId));
+        writeAscii(",\"");
+        writeAscii(name);
+        writeAscii("\",");
+        write(data.length == 0 ? NULL : data);
+        writeAscii(",");
+        if (eventId != null) {
+            writeAscii("\"");
+            writeAscii(eventId);
+            writeAscii("\"");
+        } else {
+            write(NULL);
+        }
+        writeAscii("]");
+        return Arrays.copyOf(buffer, position);
+    }
+
+    /**
+     * Encodes only the JSON envelope as UTF-8, to be framed by the transport later.
+     */
+    public byte[] encodeContentUtf8(CharSequence content) {
+        position = 0;
+        writeContent(content);
+        return Arrays.copyOf(buffer, position);
+    }
+
+    /**
+     * Encodes only the JSON envelope, for transports that take events as strings.
+     */
+    public String encodeContent(CharSequence content) {
+        position = 0;
+        writeContent(content);
+        return new String(buffer, 0, position, StandardCharsets.UTF_8);
+    }
+
+    private void writeContent(CharSequence content) {
+        write(CONTENT_PREFIX);
+        // Worst case is six bytes per char (\\u00XX); grow once up front instead of per char
+        ensureCapacity(content.length() * 6 + CONTENT_SUFFIX.length + FRAME_SUFFIX.length);
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c >= 0x20 && c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    buffer[position++] = '\\';
+                }
+                buffer[position++] = (byte) c;
+            } else if (c < 0x20) {
+                writeControl(c);
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < content.length()
+                    && Character.isLowSurrogate(content.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, content.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate (e.g. a chunk boundary inside a pair); same replacement String.getBytes uses
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        write(CONTENT_SUFFIX);
+    }
+
+    private void writeControl(char c) {
+        buffer[position++] = '\\';
+        switch (c) {
+            case '\n' -> buffer[position++] = 'n';
+            case '\r' -> buffer[position++] = 'r';
+            case '\t' -> buffer[position++] = 't';
+            case '\b' -> buffer[position++] = 'b';
+            case '\f' -> buffer[position++] = 'f';
+            default -> {
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX_DIGITS[c >> 4];
+                buffer[position++] = HEX_DIGITS[c & 0xF];
+            }
+        }
+    }
+
+    private void writeAscii(byte[] field, String value) {
+        write(field);
+        writeAscii(value);
+    }
+
+    private void writeAscii(String value) {
+        ensureCapacity(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer[position++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensureCapacity(int additional) {
+        int required = position + additional;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.tanzu.mcpclient.metrics.McpServer;
 import org.tanzu.mcpclient.model.ModelDiscoveryService;
 import org.tanzu.mcpclient.mcp.McpClientFactory;
 import org.tanzu.mcpclient.mcp.McpDiscoveryService;
+import org.tanzu.mcpclient.mcp.McpToolCatalog;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,17 +31,20 @@ public class ChatConfiguration {
     private final List<String> healthyMcpServiceURLs;
     private final ApplicationEventPublisher eventPublisher;
     private final McpClientFactory mcpClientFactory;
+    private final McpToolCatalog mcpToolCatalog;
 
     // Map to store server names by URL for use by other services
     private final Map<String, String> serverNamesByUrl = new ConcurrentHashMap<>();
 
     public ChatConfiguration(ModelDiscoveryService modelDiscoveryService, McpDiscoveryService mcpDiscoveryService,
-                             ApplicationEventPublisher eventPublisher, McpClientFactory mcpClientFactory) {
+                             ApplicationEventPublisher eventPublisher, McpClientFactory mcpClientFactory,
+                             McpToolCatalog mcpToolCatalog) {
         this.chatModel = modelDiscoveryService.getChatModelName();
         this.agentServices = mcpDiscoveryService.getMcpServiceNames();
         this.allMcpServiceURLs = mcpDiscoveryService.getAllMcpServiceUrls();
         this.eventPublisher = eventPublisher;
         this.mcpClientFactory = mcpClientFactory;
+        this.mcpToolCatalog = mcpToolCatalog;
         this.mcpServersWithHealth = new ArrayList<>();
         this.healthyMcpServiceURLs = new ArrayList<>();
 
@@ -188,6 +192,9 @@ public class ChatConfiguration {
             try {
                 var listToolsResult = client.listTools();
                 if (listToolsResult != null && listToolsResult.tools() != null) {
+                    // Seed the shared tool catalog so chat requests need no tools/list of their own
+                    mcpToolCatalog.put(serviceUrl, client.getClientInfo().name(), listToolsResult.tools());
+
                     tools = listToolsResult.tools().stream()
                             .map(tool -> new McpServer.Tool(tool.name(), tool.description()))
                             .toList();
@@ -2,76 +2,132 @@ package org.tanzu.mcpclient.chat;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.tanzu.mcpclient.metrics.ChatStageTimers;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.Principal;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 @RestController
+@ConditionalOnProperty(name = "chat.transport.mode", havingValue = "servlet", matchIfMissing = true)
 public class ChatController {
 
+    static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatController.class);
+
     private final ChatService chatService;
-    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ChatStreamAdmission chatStreamAdmission;
+    private final ChatChunkCoalescer chatChunkCoalescer;
+    private final ChatStageTimers chatStageTimers;
+    private final ResumableChatStreams resumableChatStreams;
+    private final Duration streamTimeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public ChatController(ChatService chatService) {
+    public ChatController(ChatService chatService, ChatStreamAdmission chatStreamAdmission,
+                          ChatChunkCoalescer chatChunkCoalescer, ChatStageTimers chatStageTimers,
+                          ResumableChatStreams resumableChatStreams,
+                          @Value("${chat.stream.timeout:30m}") Duration streamTimeout) {
         this.chatService = chatService;
+        this.chatStreamAdmission = chatStreamAdmission;
+        this.chatChunkCoalescer = chatChunkCoalescer;
+        this.chatStageTimers = chatStageTimers;
+        this.resumableChatStreams = resumableChatStreams;
+        this.streamTimeout = streamTimeout;
     }
 
     @GetMapping(value = "/chat", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public SseEmitter chatStream(@RequestParam("chat") String chat,
                                  @RequestParam(value = "documentId", required = false) Optional<String> documentId,
                                  @RequestParam(value = "documentIds", required = false) Optional<List<String>> documentIds,
-                                 HttpServletRequest request) {
+                                 @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId,
+                                 HttpServletRequest request,
+                                 HttpServletResponse response,
+                                 Principal principal) {
 
+        long started = System.nanoTime();
         String conversationId = request.getSession().getId();
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
+        String owner = streamOwner(principal, conversationId);
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+
+        if (lastEventId != null) {
+            // A reconnect after a dropped connection: reattach instead of generating the answer again
+            resumableChatStreams.resume(lastEventId, owner).ifPresentOrElse(
+                    resumption -> attach(emitter, resumption.stream(), resumption.lastSequence()),
+                    () -> sendNotResumable(emitter, conversationId));
+            return emitter;
+        }
 
         // Handle both single documentId (backward compatibility) and multiple documentIds
         List<String> finalDocumentIds = determineDocumentIds(documentId, documentIds);
 
+        Optional<ChatStreamAdmission.Ticket> admission = chatStreamAdmission.enter(owner);
+        if (admission.isEmpty()) {
+            // Queue is full: reject on the request thread without starting a stream
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(chatStreamAdmission.getRetryAfter().toSeconds()));
+            sendCapacityExceeded(emitter, conversationId);
+            return emitter;
+        }
+        ChatStreamAdmission.Ticket ticket = admission.get();
+
         executor.execute(() -> {
+            if (!ticket.awaitAdmission()) {
+                sendCapacityExceeded(emitter, conversationId);
+                return;
+            }
+            // The generation writes to the resumable stream, which outlives this connection
+            ResumableChatStreams.Stream stream = resumableChatStreams.open(owner);
+            attach(emitter, stream, 0);
             try {
-                Flux<String> responseStream = chatService.chatStream(chat, conversationId, finalDocumentIds);
+                Flux<String> responseStream = chatService.chatStream(chat, conversationId, finalDocumentIds,
+                        degradedServers -> sendDegradedServers(stream, degradedServers));
 
-                responseStream
-                        .filter(chunk -> chunk != null && !chunk.isEmpty())
+                ChatChunkEncoder chunkEncoder = new ChatChunkEncoder();
+
+                Disposable generation = chatChunkCoalescer.coalesce(responseStream
+                                .filter(chunk -> chunk != null && !chunk.isEmpty())
+                                .doOnNext(chunk -> stream.recordGeneratedToken()))
+                        .doFinally(signal -> {
+                            ticket.release();
+                            chatStageTimers.streamDuration("servlet", signal)
+                                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                        })
                         .subscribe(
-                                chunk -> {
-                                    try {
-                                        // Send as JSON to preserve exact content
-                                        Map<String, String> payload = Map.of("content", chunk);
-                                        String jsonData = objectMapper.writeValueAsString(payload);
-
-                                        emitter.send(SseEmitter.event()
-                                                .data(jsonData)
-                                                .name("message"));
-                                    } catch (IOException e) {
-                                        handleChatError(emitter, e, conversationId);
-                                    }
-                                },
-                                error -> handleChatError(emitter, error, conversationId),
+                                // Send as JSON to preserve exact content
+                                chunk -> stream.emit("message", chunkEncoder.encodeContentUtf8(chunk)),
+                                error -> handleChatError(stream, error, conversationId),
                                 () -> {
-                                    try {
-                                        emitter.send(SseEmitter.event()
-                                                .name("close")
-                                                .data(""));
-                                        emitter.complete();
-                                    } catch (IOException e) {
-                                        emitter.completeWithError(e);
-                                    }
+                                    stream.emit("close", "");
+                                    stream.complete();
                                 }
                         );
+                // Cancelled once no client has been attached for a while, which stops the model and tool calls
+                stream.bind(generation);
 
             } catch (Exception e) {
-                handleChatError(emitter, e, conversationId);
+                ticket.release();
+                handleChatError(stream, e, conversationId);
             }
         });
 
@@ -79,9 +135,108 @@ public class ChatController {
     }
 
     /**
-     * Handles chat errors by sending detailed error information via SSE and completing the emitter.
+     * Sends the events of a stream after {@code afterSequence} to the emitter, each as one
+     * complete frame with its ID. A connection that fails, times out or is closed by the
+     * client is detached; the generation keeps running for a while so that the client can
+     * reconnect with {@code Last-Event-ID}.
+     */
+    private void attach(SseEmitter emitter, ResumableChatStreams.Stream stream, long afterSequence) {
+        ChatChunkEncoder frameEncoder = new ChatChunkEncoder();
+        ResumableChatStreams.Listener listener = new ResumableChatStreams.Listener() {
+            @Override
+            public void onEvent(ResumableChatStreams.Event event) {
+                try {
+                    emitter.send(frameEncoder.eventFrame(event.id(), event.name(), event.data()));
+                } catch (IOException e) {
+                    emitter.completeWithError(e);
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void onHeartbeat() {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException e) {
+                    emitter.completeWithError(e);
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                emitter.complete();
+            }
+        };
+        emitter.onCompletion(() -> stream.detach(listener));
+        emitter.onTimeout(() -> {
+            stream.detach(listener);
+            emitter.complete();
+        });
+        emitter.onError(error -> stream.detach(listener));
+        stream.attach(afterSequence, listener);
+    }
+
+    /**
+     * Tells a reconnecting client that its stream is gone or no longer fully buffered, so
+     * the rest of the answer cannot be replayed.
+     */
+    private void sendNotResumable(SseEmitter emitter, String conversationId) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .data(objectMapper.writeValueAsString(notResumable(conversationId)))
+                    .name("error"));
+            emitter.complete();
+        } catch (Exception e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Rejects a request that could not be admitted, telling the client when to retry
+     * both in the error details and as the SSE reconnection time.
+     */
+    private void sendCapacityExceeded(SseEmitter emitter, String conversationId) {
+        Duration retryAfter = chatStreamAdmission.getRetryAfter();
+        try {
+            Map<String, String> context = Map.of(
+                    "conversationId", conversationId,
+                    "retryAfterSeconds", String.valueOf(retryAfter.toSeconds())
+            );
+
+            ErrorDetails errorDetails = ErrorDetails.of(
+                    "The chat service is busy right now. Please try again in a few seconds.",
+                    "ChatCapacityExceeded",
+                    null,
+                    context
+            );
+
+            emitter.send(SseEmitter.event()
+                    .data(objectMapper.writeValueAsString(errorDetails))
+                    .name("error")
+                    .reconnectTime(retryAfter.toMillis()));
+            emitter.complete();
+        } catch (Exception e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Tells the client which MCP servers were skipped for this request because they
+     * did not provide a session in time. Their tools are unavailable for this answer.
      */
-    private void handleChatError(SseEmitter emitter, Throwable error, String conversationId) {
+    private void sendDegradedServers(ResumableChatStreams.Stream stream, List<String> degradedServers) {
+        try {
+            stream.emit("degraded", objectMapper.writeValueAsString(Map.of("servers", degradedServers)));
+        } catch (IOException e) {
+            // The notice is best effort
+        }
+    }
+
+    /**
+     * Handles chat errors by sending detailed error information as the last event of the stream.
+     */
+    private void handleChatError(ResumableChatStreams.Stream stream, Throwable error, String conversationId) {
         try {
             // Create context information
             Map<String, String> context = Map.of(
@@ -96,19 +251,34 @@ public class ChatController {
                     context
             );
 
-            // Send error details via SSE
-            String errorJson = objectMapper.writeValueAsString(errorDetails);
-            emitter.send(SseEmitter.event()
-                    .data(errorJson)
-                    .name("error"));
-
-            emitter.complete();
+            stream.emit("error", objectMapper.writeValueAsString(errorDetails));
         } catch (Exception e) {
-            // Fallback: complete with error if we can't send the detailed error
-            emitter.completeWithError(e);
+            logger.warn("Failed to send chat error for conversation {}: {}", conversationId, e.getMessage());
+        } finally {
+            stream.complete();
         }
     }
 
+    /**
+     * Error details for a reconnect whose stream cannot be resumed.
+     */
+    static ErrorDetails notResumable(String conversationId) {
+        return ErrorDetails.of(
+                "The connection was lost and the rest of the answer is no longer available. Please ask again.",
+                "ChatStreamNotResumable",
+                null,
+                Map.of("conversationId", conversationId)
+        );
+    }
+
+    /**
+     * The user that admission control queues a request under: the authenticated principal,
+     * or the session for unauthenticated requests.
+     */
+    static String streamOwner(Principal principal, String conversationId) {
+        return principal != null ? principal.getName() : "session:" + conversationId;
+    }
+
     /**
      * Determines the final list of document IDs to use for the chat request.
      * Prioritizes documentIds parameter over documentId for backward compatibility.
@@ -117,7 +287,7 @@ public class ChatController {
      * @param documentIds Multiple document IDs (new parameter)
      * @return List of document IDs to use, empty if none provided
      */
-    private List<String> determineDocumentIds(Optional<String> documentId, Optional<List<String>> documentIds) {
+    static List<String> determineDocumentIds(Optional<String> documentId, Optional<List<String>> documentIds) {
         // If documentIds is provided and not empty, use it
         if (documentIds.isPresent() && !documentIds.get().isEmpty()) {
             return documentIds.get().stream()
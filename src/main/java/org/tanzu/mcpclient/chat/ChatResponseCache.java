@@ -0,0 +1,203 @@
+package org.tanzu.mcpclient.chat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.metrics.ResponseCacheMetrics;
+import org.tanzu.mcpclient.model.EmbeddingVectors;
+import org.tanzu.mcpclient.model.ModelDiscoveryService;
+import org.tanzu.mcpclient.model.QueryEmbedding;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Semantic cache of chat answers. The user message is embedded with the configured
+ * configured embedding model, and an earlier answer is replayed if its question has a cosine
+ * similarity of at least {@code similarityThreshold} and was asked with the same documents
+ * and the same set of available tools. Entries are held in an in-process index, expire after
+ * the TTL and are evicted oldest-first beyond {@code maxEntries}.
+ *
+ * <p>Only the first message of a conversation is served from or stored in the cache, since
+ * later messages depend on the conversation history. A replayed answer is added to the chat
+ * memory so that follow-up questions keep their context.</p>
+ */
+@Component
+public class ChatResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatResponseCache.class);
+
+    private final ChatMemory chatMemory;
+    private final ModelDiscoveryService modelDiscoveryService;
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final Duration ttl;
+    private final int maxEntries;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<CachedAnswer> answers = new ArrayList<>();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong stored = new AtomicLong();
+
+    public ChatResponseCache(ChatMemory chatMemory,
+                             ModelDiscoveryService modelDiscoveryService,
+                             @Value("${chat.response-cache.enabled:false}") boolean enabled,
+                             @Value("${chat.response-cache.similarity-threshold:0.95}") double similarityThreshold,
+                             @Value("${chat.response-cache.ttl:1h}") Duration ttl,
+                             @Value("${chat.response-cache.max-entries:1000}") int maxEntries) {
+        this.chatMemory = chatMemory;
+        this.modelDiscoveryService = modelDiscoveryService;
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+
+        if (enabled) {
+            logger.info("Chat response cache configured: similarityThreshold={}, ttl={}, maxEntries={}",
+                    similarityThreshold, ttl, maxEntries);
+        }
+    }
+
+    /**
+     * Returns the cached answer for a semantically equivalent first question in the same
+     * scope, or the generated answer otherwise, storing it once it completed successfully.
+     * Nothing runs before the returned stream is subscribed, neither the lookup (including
+     * the embedding call) nor {@code generate}.
+     *
+     * @param query       the user message, embedded on lookup
+     * @param documentIds the documents the answer may draw on
+     * @param toolNames   the tools that were available to the model
+     * @param generate    produces the answer on a cache miss
+     */
+    public Flux<String> answer(QueryEmbedding query, String conversationId, Collection<String> documentIds,
+                               Collection<String> toolNames, Supplier<Flux<String>> generate) {
+        if (!enabled || !modelDiscoveryService.isEmbeddingModelAvailable()) {
+            return Flux.defer(generate);
+        }
+
+        return Flux.defer(() -> {
+            if (!isFirstMessage(conversationId)) {
+                return generate.get();
+            }
+            lookups.incrementAndGet();
+            Scope scope = Scope.of(documentIds, toolNames);
+            float[] embedding;
+            try {
+                embedding = query.get();
+            } catch (RuntimeException e) {
+                logger.warn("Could not embed chat message for the response cache: {}", e.getMessage());
+                return generate.get();
+            }
+
+            String cached = find(embedding, scope);
+            if (cached != null) {
+                hits.incrementAndGet();
+                logger.debug("Chat response cache hit for conversation {}", conversationId);
+                chatMemory.add(conversationId, List.of(new UserMessage(query.text()), new AssistantMessage(cached)));
+                return Flux.just(cached);
+            }
+
+            StringBuilder answer = new StringBuilder();
+            return generate.get()
+                    .doOnNext(answer::append)
+                    .doOnComplete(() -> {
+                        if (!answer.isEmpty()) {
+                            store(new CachedAnswer(embedding, scope, answer.toString(), System.nanoTime() + ttl.toNanos()));
+                        }
+                    });
+        });
+    }
+
+    public ResponseCacheMetrics getMetrics() {
+        long lookupCount = lookups.get();
+        long hitCount = hits.get();
+        int entries;
+        lock.lock();
+        try {
+            entries = answers.size();
+        } finally {
+            lock.unlock();
+        }
+        return new ResponseCacheMetrics(
+                enabled,
+                similarityThreshold,
+                entries,
+                lookupCount,
+                hitCount,
+                stored.get(),
+                lookupCount > 0 ? (double) hitCount / lookupCount : 0.0
+        );
+    }
+
+    /**
+     * Whether the conversation has no history yet, so that an answer cannot depend on it.
+     */
+    private boolean isFirstMessage(String conversationId) {
+        return chatMemory.get(conversationId).isEmpty();
+    }
+
+    private String find(float[] embedding, Scope scope) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            CachedAnswer best = null;
+            double bestSimilarity = similarityThreshold;
+            for (Iterator<CachedAnswer> iterator = answers.iterator(); iterator.hasNext(); ) {
+                CachedAnswer candidate = iterator.next();
+                if (candidate.expiresAt() - now <= 0) {
+                    iterator.remove();
+                    continue;
+                }
+                if (!candidate.scope().equals(scope)) {
+                    continue;
+                }
+                double similarity = EmbeddingVectors.cosineSimilarity(embedding, candidate.embedding());
+                if (similarity >= bestSimilarity) {
+                    best = candidate;
+                    bestSimilarity = similarity;
+                }
+            }
+            return best != null ? best.answer() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(CachedAnswer answer) {
+        lock.lock();
+        try {
+            answers.add(answer);
+            while (answers.size() > maxEntries) {
+                answers.removeFirst();
+            }
+            stored.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The documents and tools an answer was generated with, independent of their order.
+     */
+    private record Scope(List<String> documentIds, List<String> toolNames) {
+
+        static Scope of(Collection<String> documentIds, Collection<String> toolNames) {
+            return new Scope(documentIds.stream().sorted().toList(), toolNames.stream().sorted().toList());
+        }
+    }
+
+    private record CachedAnswer(float[] embedding, Scope scope, String answer, long expiresAt) {
+    }
+}
@@ -1,6 +1,5 @@
 package org.tanzu.mcpclient.chat;
 
-import io.modelcontextprotocol.client.McpSyncClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
@@ -8,21 +7,45 @@ import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.client.advisor.api.Advisor;
 import org.springframework.ai.chat.client.advisor.api.BaseChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.vectorstore.QuestionAnswerAdvisor;
-import org.springframework.ai.mcp.SyncMcpToolCallbackProvider;
-import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.tanzu.mcpclient.document.DocumentService;
+import org.tanzu.mcpclient.metrics.ChatStageTimers;
 import org.tanzu.mcpclient.model.ModelDiscoveryService;
-import org.tanzu.mcpclient.mcp.McpClientFactory;
+import org.tanzu.mcpclient.model.QueryEmbedding;
+import org.tanzu.mcpclient.mcp.McpAsyncSessions;
+import org.tanzu.mcpclient.mcp.McpToolCallDeduplicator;
+import org.tanzu.mcpclient.mcp.McpToolCallTimer;
+import org.tanzu.mcpclient.mcp.McpToolCatalog;
+import org.tanzu.mcpclient.mcp.McpToolResultCache;
+import org.tanzu.mcpclient.mcp.McpToolRouter;
+import org.tanzu.mcpclient.resilience.CircuitBreakers;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import static org.springframework.ai.chat.memory.ChatMemory.CONVERSATION_ID;
 
@@ -32,31 +55,75 @@ public class ChatService {
     private final ChatClient chatClient;
     private final VectorStore vectorStore;
     private final List<String> mcpServiceURLs;
-    private final McpClientFactory mcpClientFactory;
+    private final McpToolCatalog mcpToolCatalog;
+    private final McpAsyncSessions mcpAsyncSessions;
+    private final McpToolResultCache mcpToolResultCache;
+    private final McpToolCallDeduplicator mcpToolCallDeduplicator;
+    private final ChatResponseCache chatResponseCache;
+    private final McpToolRouter mcpToolRouter;
+    private final EmbeddingModel embeddingModel;
+    private final McpToolCallTimer mcpToolCallTimer;
+    private final ChatStageTimers chatStageTimers;
+    private final CircuitBreakers circuitBreakers;
     private final ModelDiscoveryService modelDiscoveryService; // Add this field
+    private final Map<String, String> serverNamesByUrl;
+    private final Duration mcpInitDeadline;
+    private final ExecutorService mcpInitExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService retrievalExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     @Value("classpath:/prompts/system-prompt.st")
     private Resource systemChatPrompt;
 
     private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
 
+    // Metrics tag for servers without a display name; their URL must not end up in metrics
+    private static final String UNNAMED_SERVER = "unnamed";
+
     // Update constructor to inject ModelDiscoveryService
     public ChatService(ChatClient.Builder chatClientBuilder, BaseChatMemoryAdvisor memoryAdvisor,
-                       List<String> mcpServiceURLs, VectorStore vectorStore, McpClientFactory mcpClientFactory,
-                       ModelDiscoveryService modelDiscoveryService) {
-        chatClientBuilder = chatClientBuilder.defaultAdvisors(memoryAdvisor, new SimpleLoggerAdvisor());
+                       List<String> mcpServiceURLs, VectorStore vectorStore, McpToolCatalog mcpToolCatalog,
+                       McpAsyncSessions mcpAsyncSessions, McpToolResultCache mcpToolResultCache,
+                       McpToolCallDeduplicator mcpToolCallDeduplicator, ChatResponseCache chatResponseCache,
+                       McpToolRouter mcpToolRouter, EmbeddingModel embeddingModel, McpToolCallTimer mcpToolCallTimer, ChatStageTimers chatStageTimers,
+                       CircuitBreakers circuitBreakers, ModelDiscoveryService modelDiscoveryService, Map<String, String> serverNamesByUrl,
+                       @Value("${mcp.client.init-deadline:5s}") Duration mcpInitDeadline) {
+        List<Advisor> defaultAdvisors = new ArrayList<>(MemoryRetrievalTimingAdvisor.around(memoryAdvisor, chatStageTimers));
+        defaultAdvisors.add(new SimpleLoggerAdvisor());
+        chatClientBuilder = chatClientBuilder.defaultAdvisors(defaultAdvisors);
         this.chatClient = chatClientBuilder.build();
 
         this.mcpServiceURLs = mcpServiceURLs;
         this.vectorStore = vectorStore;
-        this.mcpClientFactory = mcpClientFactory;
+        this.mcpToolCatalog = mcpToolCatalog;
+        this.mcpAsyncSessions = mcpAsyncSessions;
+        this.mcpToolResultCache = mcpToolResultCache;
+        this.mcpToolCallDeduplicator = mcpToolCallDeduplicator;
+        this.chatResponseCache = chatResponseCache;
+        this.mcpToolRouter = mcpToolRouter;
+        this.embeddingModel = embeddingModel;
+        this.mcpToolCallTimer = mcpToolCallTimer;
+        this.chatStageTimers = chatStageTimers;
+        this.circuitBreakers = circuitBreakers;
         this.modelDiscoveryService = modelDiscoveryService; // Store the service
+        this.serverNamesByUrl = serverNamesByUrl;
+        this.mcpInitDeadline = mcpInitDeadline;
     }
 
     /**
      * Updated method to handle multiple document IDs
      */
     public Flux<String> chatStream(String chat, String conversationId, List<String> documentIds) {
+        return chatStream(chat, conversationId, documentIds, degradedServers -> {});
+    }
+
+    /**
+     * Streams a chat response and reports the MCP servers whose tools could not be resolved
+     * within the init deadline. Those servers are skipped for this request only; the
+     * listener is invoked before the first chunk is emitted. Answers may be served from
+     * the {@link ChatResponseCache}, in which case no tools are resolved at all.
+     */
+    public Flux<String> chatStream(String chat, String conversationId, List<String> documentIds,
+                                   Consumer<List<String>> degradedServersListener) {
         // Validate chat model availability - this is where graceful degradation happens
         String chatModel = modelDiscoveryService.getChatModelName();
         if (chatModel == null || chatModel.isEmpty()) {
@@ -64,67 +131,230 @@ public class ChatService {
             return Flux.error(new IllegalStateException("No chat model configured"));
         }
 
-        try (Stream<McpSyncClient> mcpSyncClients = createAndInitializeMcpClients()) {
-            ToolCallbackProvider[] toolCallbackProviders = mcpSyncClients
-                    .map(SyncMcpToolCallbackProvider::new)
-                    .toArray(ToolCallbackProvider[]::new);
+        // Embedded at most once, for both the response cache and the tool router
+        QueryEmbedding query = new QueryEmbedding(embeddingModel, chat);
+        return chatResponseCache.answer(query, conversationId, nullSafe(documentIds), catalogToolNames(), () -> {
+            // Document retrieval runs while the MCP tools are resolved and the memory advisor runs
+            PrefetchedVectorStore documents = prefetchDocuments(chat, documentIds);
+
+            List<String> degradedServers = new ArrayList<>();
+            ToolCallback[] toolCallbacks = resolveToolCallbacks(degradedServers);
+            if (!degradedServers.isEmpty()) {
+                degradedServersListener.accept(degradedServers);
+            }
 
             logger.info("CHAT STREAM REQUEST: conversationID = {}, documentIds = {}", conversationId, documentIds);
-            return buildAndExecuteStreamChatRequest(chat, conversationId, documentIds, toolCallbackProviders);
+            return buildAndExecuteStreamChatRequest(chat, query, conversationId, documents, toolCallbacks);
+        });
+    }
+
+    /**
+     * Non-blocking variant of {@link #chatStream(String, String, List, Consumer)} for the
+     * reactive transport mode. Tools are resolved and invoked over shared {@code McpAsyncClient}
+     * sessions, and nothing is done until the returned stream is subscribed. The listener is
+     * invoked before the first chunk is emitted.
+     */
+    public Flux<String> reactiveChatStream(String chat, String conversationId, List<String> documentIds,
+                                           Consumer<List<String>> degradedServersListener) {
+        String chatModel = modelDiscoveryService.getChatModelName();
+        if (chatModel == null || chatModel.isEmpty()) {
+            logger.warn("Chat request attempted but no chat model configured");
+            return Flux.error(new IllegalStateException("No chat model configured"));
         }
+
+        // Embedded at most once, for both the response cache and the tool router
+        QueryEmbedding query = new QueryEmbedding(embeddingModel, chat);
+        return chatResponseCache.answer(query, conversationId, nullSafe(documentIds), catalogToolNames(), () -> {
+            PrefetchedVectorStore documents = prefetchDocuments(chat, documentIds);
+
+            List<String> degradedServers = new CopyOnWriteArrayList<>();
+            return resolveToolCallbacksReactive(degradedServers)
+                    // Routing may embed the query, which blocks; the async sessions and the init
+                    // deadline signal on non-blocking threads
+                    .publishOn(Schedulers.boundedElastic())
+                    .flatMapMany(toolCallbacks -> {
+                        if (!degradedServers.isEmpty()) {
+                            degradedServersListener.accept(degradedServers);
+                        }
+                        logger.info("REACTIVE CHAT STREAM REQUEST: conversationID = {}, documentIds = {}",
+                                conversationId, documentIds);
+                        return buildAndExecuteStreamChatRequest(chat, query, conversationId, documents, toolCallbacks);
+                    });
+        });
     }
 
-    private Stream<McpSyncClient> createAndInitializeMcpClients() {
+    /**
+     * Names of all tools currently known for the configured MCP servers, taken from the
+     * catalog without contacting any server.
+     */
+    private List<String> catalogToolNames() {
         return mcpServiceURLs.stream()
-                .map(mcpClientFactory::createMcpSyncClient)
-                .peek(McpSyncClient::initialize);
+                .flatMap(mcpServiceURL -> mcpToolCatalog.getTools(mcpServiceURL).stream()
+                        .map(tool -> mcpServiceURL + "#" + tool.name()))
+                .toList();
     }
 
-    private Flux<String> buildAndExecuteStreamChatRequest(String chat, String conversationId, List<String> documentIds,
-                                                          ToolCallbackProvider[] toolCallbackProviders) {
+    private String serverName(String mcpServiceURL) {
+        return serverNamesByUrl.getOrDefault(mcpServiceURL, UNNAMED_SERVER);
+    }
+
+    private static List<String> nullSafe(List<String> documentIds) {
+        return documentIds != null ? documentIds : List.of();
+    }
+
+    /**
+     * Collects the tool callbacks of every healthy MCP server from the shared tool catalog.
+     * Cached servers answer without any network round-trip; tools are invoked later through
+     * pooled sessions.
+     *
+     * <p>Servers whose catalog entry has to be (re)loaded are contacted concurrently on
+     * virtual threads and share one deadline, so setup takes as long as the slowest server
+     * rather than the sum of all of them. Servers that fail or miss the deadline are added
+     * to {@code degradedServers} by display name, as are servers whose circuit breaker is
+     * open, without being contacted.</p>
+     */
+    private ToolCallback[] resolveToolCallbacks(List<String> degradedServers) {
+        Map<String, CompletableFuture<ToolCallback[]>> pending = new LinkedHashMap<>();
+        for (String mcpServiceURL : mcpServiceURLs) {
+            if (isCircuitOpen(mcpServiceURL)) {
+                degradedServers.add(serverNamesByUrl.getOrDefault(mcpServiceURL, mcpServiceURL));
+                continue;
+            }
+            pending.put(mcpServiceURL,
+                    CompletableFuture.supplyAsync(() -> chatStageTimers.mcpInit(serverName(mcpServiceURL))
+                            .record(() -> mcpToolCatalog.getToolCallbacks(mcpServiceURL)), mcpInitExecutor));
+        }
+
+        long deadline = System.nanoTime() + mcpInitDeadline.toNanos();
+        List<ToolCallback> toolCallbacks = new ArrayList<>();
+        pending.forEach((mcpServiceURL, future) -> {
+            try {
+                toolCallbacks.addAll(List.of(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)));
+            } catch (TimeoutException e) {
+                logger.warn("MCP server {} missed the {} init deadline, skipping it for this request",
+                        mcpServiceURL, mcpInitDeadline);
+                degradedServers.add(serverNamesByUrl.getOrDefault(mcpServiceURL, mcpServiceURL));
+            } catch (ExecutionException e) {
+                logger.warn("MCP server {} could not provide its tools, skipping it for this request: {}",
+                        mcpServiceURL, e.getCause().getMessage());
+                degradedServers.add(serverNamesByUrl.getOrDefault(mcpServiceURL, mcpServiceURL));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                degradedServers.add(serverNamesByUrl.getOrDefault(mcpServiceURL, mcpServiceURL));
+            }
+        });
+        return toolCallbacks.toArray(ToolCallback[]::new);
+    }
+
+    /**
+     * Reactive counterpart of {@link #resolveToolCallbacks(List)}: all servers are resolved
+     * concurrently over async sessions, each bounded by the init deadline.
+     */
+    private Mono<ToolCallback[]> resolveToolCallbacksReactive(List<String> degradedServers) {
+        return Flux.fromIterable(mcpServiceURLs)
+                .filter(mcpServiceURL -> {
+                    if (isCircuitOpen(mcpServiceURL)) {
+                        degradedServers.add(serverNamesByUrl.getOrDefault(mcpServiceURL, mcpServiceURL));
+                        return false;
+                    }
+                    return true;
+                })
+                .flatMap(mcpServiceURL -> chatStageTimers.time(mcpAsyncSessions.getToolCallbacks(mcpServiceURL),
+                                chatStageTimers.mcpInit(serverName(mcpServiceURL)))
+                        .timeout(mcpInitDeadline)
+                        .onErrorResume(e -> {
+                            logger.warn("MCP server {} could not provide its tools in time, skipping it for this request: {}",
+                                    mcpServiceURL, e.getMessage());
+                            degradedServers.add(serverNamesByUrl.getOrDefault(mcpServiceURL, mcpServiceURL));
+                            return Mono.empty();
+                        }))
+                .flatMapIterable(List::of)
+                .collectList()
+                .map(toolCallbacks -> toolCallbacks.toArray(ToolCallback[]::new));
+    }
+
+    private boolean isCircuitOpen(String mcpServiceURL) {
+        if (circuitBreakers.forMcpServer(mcpServiceURL).isCallPermitted()) {
+            return false;
+        }
+        logger.debug("Circuit breaker for MCP server {} is open, skipping it for this request", mcpServiceURL);
+        return true;
+    }
+
+    /**
+     * Starts the similarity search over the selected documents on a virtual thread, so that
+     * it overlaps with MCP tool resolution and the memory advisor instead of running after
+     * them inside the advisor chain. Returns {@code null} if no documents are selected.
+     */
+    private PrefetchedVectorStore prefetchDocuments(String chat, List<String> documentIds) {
+        Filter.Expression filterExpression = buildDocumentFilterExpression(documentIds);
+        if (filterExpression == null) {
+            return null;
+        }
+
+        logger.debug("Using document filter expression: {}", filterExpression);
+        SearchRequest searchRequest = SearchRequest.builder()
+                .query(chat)
+                .filterExpression(filterExpression)
+                .build();
+        CompletableFuture<List<Document>> retrieval =
+                CompletableFuture.supplyAsync(() -> chatStageTimers.similaritySearch()
+                        .record(() -> vectorStore.similaritySearch(searchRequest)), retrievalExecutor);
+        return new PrefetchedVectorStore(vectorStore, searchRequest, retrieval);
+    }
+
+    private Flux<String> buildAndExecuteStreamChatRequest(String chat, QueryEmbedding query, String conversationId,
+                                                          PrefetchedVectorStore documents,
+                                                          ToolCallback[] toolCallbacks) {
+
+        // Only tools relevant to the message are offered. Cache hits skip the call entirely;
+        // misses join an identical call that is already in flight
+        ToolCallback[] requestToolCallbacks = Arrays.stream(mcpToolRouter.route(query, toolCallbacks))
+                .map(mcpToolCallTimer::wrap)
+                .map(mcpToolCallDeduplicator::wrap)
+                .map(mcpToolResultCache::wrap)
+                .toArray(ToolCallback[]::new);
 
         ChatClient.ChatClientRequestSpec spec = chatClient.
                 prompt().
                 user(chat).
                 system(systemChatPrompt).
-                toolCallbacks(toolCallbackProviders);
+                toolCallbacks(requestToolCallbacks);
 
-        if (documentIds != null && !documentIds.isEmpty()) {
-            spec = addDocumentSearchCapabilities(spec, documentIds);
+        if (documents != null) {
+            spec = addDocumentSearchCapabilities(spec, documents);
         }
 
         spec = spec.advisors(a -> a.param(CONVERSATION_ID, conversationId));
 
-        return spec.stream().content()
-                .filter(Objects::nonNull);
+        return chatStageTimers.timeTokens(spec.stream().content()
+                .filter(Objects::nonNull));
     }
 
     /**
-     * Updated method to handle multiple document IDs with OR filter expressions
+     * Adds the question-answer advisor for the selected documents. The advisor's search
+     * request carries the document filter and matches the prefetched search, so the advisor
+     * picks up the prefetched documents instead of searching again.
      */
     private ChatClient.ChatClientRequestSpec addDocumentSearchCapabilities(
             ChatClient.ChatClientRequestSpec spec,
-            List<String> documentIds) {
-
-        Advisor questionAnswerAdvisor = new QuestionAnswerAdvisor(this.vectorStore);
-
-        // Build OR filter expression for multiple documents
-        String filterExpression = buildDocumentFilterExpression(documentIds);
+            PrefetchedVectorStore documents) {
 
-        logger.debug("Using document filter expression: {}", filterExpression);
+        Advisor questionAnswerAdvisor = QuestionAnswerAdvisor.builder(documents)
+                .searchRequest(documents.getPrefetchedRequest())
+                .build();
 
-        return spec.advisors(questionAnswerAdvisor)
-                .advisors(advisorSpec ->
-                        advisorSpec.param(QuestionAnswerAdvisor.FILTER_EXPRESSION, filterExpression));
+        return spec.advisors(questionAnswerAdvisor);
     }
 
     /**
-     * Builds a filter expression for multiple document IDs using OR logic
-     * Format: "documentId == 'doc1' OR documentId == 'doc2' OR documentId == 'doc3'"
+     * Builds the filter that restricts a search to the given documents, as a single
+     * {@code documentId IN (...)} expression, or returns {@code null} if there are none.
+     * The expression is handed to the vector store as is, without a textual round-trip.
      */
-    private String buildDocumentFilterExpression(List<String> documentIds) {
+    static Filter.Expression buildDocumentFilterExpression(List<String> documentIds) {
         if (documentIds == null || documentIds.isEmpty()) {
-            return "";
+            return null;
         }
 
         // Filter out null or empty document IDs
@@ -133,17 +363,10 @@ public class ChatService {
                 .toList();
 
         if (validDocumentIds.isEmpty()) {
-            return "";
-        }
-
-        // For single document, use simple equality
-        if (validDocumentIds.size() == 1) {
-            return DocumentService.DOCUMENT_ID + " == '" + validDocumentIds.get(0) + "'";
+            return null;
         }
 
-        // For multiple documents, use OR expressions
-        return validDocumentIds.stream()
-                .map(docId -> DocumentService.DOCUMENT_ID + " == '" + docId + "'")
-                .collect(Collectors.joining(" OR "));
+        return new Filter.Expression(Filter.ExpressionType.IN,
+                new Filter.Key(DocumentService.DOCUMENT_ID), new Filter.Value(validDocumentIds));
     }
 }
\ No newline at end of file
@@ -0,0 +1,295 @@
+package org.tanzu.mcpclient.chat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.metrics.ChatAdmissionMetrics;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control for chat streams. At most {@code maxConcurrentStreams} streams run
+ * at once; a small number of further requests may wait for a free slot for a short
+ * time, and everything beyond that is rejected immediately so the caller can retry.
+ *
+ * <p>Requests are queued per user, and free slots are handed out by start-time fair
+ * queuing: each request is tagged with its user's virtual finish time, which advances by
+ * {@code 1/weight} per request, and the queued request with the lowest tag goes first.
+ * A user who opens many streams at once therefore waits behind other users' first
+ * streams instead of taking all slots. No user runs more than
+ * {@code maxConcurrentStreamsPerUser} streams or queues more than
+ * {@code maxQueuedStreamsPerUser} further requests. Weights default to 1 and are set with
+ * {@code user=weight} entries.</p>
+ */
+@Component
+public class ChatStreamAdmission {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatStreamAdmission.class);
+
+    private final int maxConcurrentStreams;
+    private final int maxQueuedStreams;
+    private final int maxConcurrentStreamsPerUser;
+    private final int maxQueuedStreamsPerUser;
+    private final Duration queueTimeout;
+    private final Duration retryAfter;
+    private final Map<String, Double> userWeights = new HashMap<>();
+
+    // Guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, UserQueue> users = new HashMap<>();
+    private int activeStreams;
+    private int queuedStreams;
+    private double virtualTime;
+
+    private final AtomicLong admittedTotal = new AtomicLong();
+    private final AtomicLong queuedTotal = new AtomicLong();
+    private final AtomicLong rejectedTotal = new AtomicLong();
+
+    public ChatStreamAdmission(@Value("${chat.admission.max-concurrent-streams:200}") int maxConcurrentStreams,
+                               @Value("${chat.admission.max-queued-streams:50}") int maxQueuedStreams,
+                               @Value("${chat.admission.max-concurrent-streams-per-user:4}") int maxConcurrentStreamsPerUser,
+                               @Value("${chat.admission.max-queued-streams-per-user:8}") int maxQueuedStreamsPerUser,
+                               @Value("${chat.admission.user-weights:}") Set<String> userWeights,
+                               @Value("${chat.admission.queue-timeout:2s}") Duration queueTimeout,
+                               @Value("${chat.admission.retry-after:5s}") Duration retryAfter) {
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.maxQueuedStreams = maxQueuedStreams;
+        this.maxConcurrentStreamsPerUser = maxConcurrentStreamsPerUser;
+        this.maxQueuedStreamsPerUser = maxQueuedStreamsPerUser;
+        this.queueTimeout = queueTimeout;
+        this.retryAfter = retryAfter;
+
+        for (String entry : userWeights) {
+            int separator = entry.lastIndexOf('=');
+            try {
+                this.userWeights.put(entry.substring(0, separator).trim(),
+                        Double.parseDouble(entry.substring(separator + 1).trim()));
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring invalid chat admission user weight '{}', expected user=weight", entry);
+            }
+        }
+
+        logger.info("Chat stream admission configured: maxConcurrentStreams={}, maxQueuedStreams={}, perUser={}/{} queued, queueTimeout={}",
+                maxConcurrentStreams, maxQueuedStreams, maxConcurrentStreamsPerUser, maxQueuedStreamsPerUser, queueTimeout);
+    }
+
+    /**
+     * Tries to enter a request of the given user without blocking. The ticket is either
+     * already admitted or holds a place in the user's queue; an empty result means the
+     * queue is full and the request must be rejected.
+     */
+    public Optional<Ticket> enter(String user) {
+        lock.lock();
+        try {
+            UserQueue userQueue = users.computeIfAbsent(user, UserQueue::new);
+            if (userQueue.waiting.size() >= maxQueuedStreamsPerUser) {
+                rejectedTotal.incrementAndGet();
+                return Optional.empty();
+            }
+
+            double previousFinishTag = userQueue.lastFinishTag;
+            double startTag = Math.max(virtualTime, previousFinishTag);
+            userQueue.lastFinishTag = startTag + 1.0 / userQueue.weight;
+            Ticket ticket = new Ticket(userQueue, startTag);
+            userQueue.waiting.addLast(ticket);
+            queuedStreams++;
+            dispatch();
+            if (ticket.admitted) {
+                return Optional.of(ticket);
+            }
+            if (queuedStreams > maxQueuedStreams) {
+                ticket.leaveQueue();
+                userQueue.lastFinishTag = previousFinishTag;
+                removeIfIdle(userQueue);
+                rejectedTotal.incrementAndGet();
+                return Optional.empty();
+            }
+            queuedTotal.incrementAndGet();
+            return Optional.of(ticket);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * How long a rejected client should wait before trying again.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public ChatAdmissionMetrics getMetrics() {
+        lock.lock();
+        try {
+            int queuedUsers = 0;
+            int longestUserQueue = 0;
+            for (UserQueue userQueue : users.values()) {
+                if (!userQueue.waiting.isEmpty()) {
+                    queuedUsers++;
+                    longestUserQueue = Math.max(longestUserQueue, userQueue.waiting.size());
+                }
+            }
+            return new ChatAdmissionMetrics(
+                    maxConcurrentStreams,
+                    activeStreams,
+                    queuedStreams,
+                    admittedTotal.get(),
+                    queuedTotal.get(),
+                    rejectedTotal.get(),
+                    maxConcurrentStreamsPerUser,
+                    (int) users.values().stream().filter(userQueue -> userQueue.active > 0).count(),
+                    queuedUsers,
+                    longestUserQueue
+            );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Admits queued requests while slots are free, always taking the request with the
+     * lowest start tag among users that are below their own limit.
+     */
+    private void dispatch() {
+        while (activeStreams < maxConcurrentStreams) {
+            Ticket next = null;
+            for (UserQueue userQueue : users.values()) {
+                Ticket head = userQueue.waiting.peekFirst();
+                if (head != null && userQueue.active < maxConcurrentStreamsPerUser
+                        && (next == null || head.startTag < next.startTag)) {
+                    next = head;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            next.userQueue.waiting.pollFirst();
+            next.userQueue.active++;
+            queuedStreams--;
+            activeStreams++;
+            virtualTime = Math.max(virtualTime, next.startTag);
+            next.admitted = true;
+            next.admission.complete(null);
+            admittedTotal.incrementAndGet();
+        }
+    }
+
+    /**
+     * Forgets a user without active or waiting requests. Its finish tag only matters while
+     * it has requests; a returning user starts at the current virtual time again.
+     */
+    private void removeIfIdle(UserQueue userQueue) {
+        if (userQueue.active == 0 && userQueue.waiting.isEmpty()) {
+            // A ticket released late may belong to a queue that was already replaced
+            users.remove(userQueue.user, userQueue);
+        }
+    }
+
+    private final class UserQueue {
+        private final String user;
+        private final double weight;
+        private final Deque<Ticket> waiting = new ArrayDeque<>();
+        private int active;
+        private double lastFinishTag;
+
+        private UserQueue(String user) {
+            this.user = user;
+            this.weight = userWeights.getOrDefault(user, 1.0);
+        }
+    }
+
+    /**
+     * A request's place in admission control. Must be released exactly once when the
+     * stream ends; additional calls to {@link #release()} are ignored.
+     */
+    public final class Ticket {
+        private final UserQueue userQueue;
+        private final double startTag;
+        private final CompletableFuture<Void> admission = new CompletableFuture<>();
+        private final AtomicBoolean released = new AtomicBoolean();
+        // Guarded by the admission lock
+        private boolean admitted;
+
+        private Ticket(UserQueue userQueue, double startTag) {
+            this.userQueue = userQueue;
+            this.startTag = startTag;
+        }
+
+        /**
+         * Waits for a stream slot if this ticket is queued. Blocks for at most the queue
+         * timeout, so it should be called from the stream's own (virtual) thread.
+         *
+         * @return true if the request may start streaming, false if it timed out in the queue
+         */
+        public boolean awaitAdmission() {
+            try {
+                admission.get(queueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                return true;
+            } catch (TimeoutException e) {
+                return abandon();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return abandon();
+            } catch (ExecutionException e) {
+                return abandon();
+            }
+        }
+
+        public void release() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            lock.lock();
+            try {
+                if (admitted) {
+                    userQueue.active--;
+                    activeStreams--;
+                    dispatch();
+                } else {
+                    leaveQueue();
+                }
+                removeIfIdle(userQueue);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Gives up the place in the queue, unless the ticket was admitted in the meantime.
+         */
+        private boolean abandon() {
+            lock.lock();
+            try {
+                if (admitted) {
+                    return true;
+                }
+                leaveQueue();
+                removeIfIdle(userQueue);
+                rejectedTotal.incrementAndGet();
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void leaveQueue() {
+            if (userQueue.waiting.remove(this)) {
+                queuedStreams--;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.tanzu.mcpclient.chat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
+
+/**
+ * Registers the multiplexed chat transport at {@code /chat/ws}, next to the SSE endpoint.
+ */
+@Configuration
+@EnableWebSocket
+public class ChatWebSocketConfiguration implements WebSocketConfigurer {
+
+    private final ChatWebSocketHandler chatWebSocketHandler;
+    private final String[] allowedOriginPatterns;
+
+    public ChatWebSocketConfiguration(ChatWebSocketHandler chatWebSocketHandler,
+                                      @Value("${chat.websocket.allowed-origin-patterns:*}") String[] allowedOriginPatterns) {
+        this.chatWebSocketHandler = chatWebSocketHandler;
+        this.allowedOriginPatterns = allowedOriginPatterns;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Creates the HTTP session up front, its ID is the conversation ID of the connection
+        HttpSessionHandshakeInterceptor sessionInterceptor = new HttpSessionHandshakeInterceptor();
+        sessionInterceptor.setCreateSession(true);
+
+        registry.addHandler(chatWebSocketHandler, "/chat/ws")
+                .addInterceptors(sessionInterceptor)
+                .setAllowedOriginPatterns(allowedOriginPatterns);
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean chatWebSocketContainer(
+            @Value("${chat.websocket.max-message-size:65536}") int maxMessageSize) {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(maxMessageSize);
+        return container;
+    }
+}
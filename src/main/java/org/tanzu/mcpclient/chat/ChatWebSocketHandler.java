@@ -0,0 +1,552 @@
+package org.tanzu.mcpclient.chat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
+import org.tanzu.mcpclient.metrics.ChatStageTimers;
+import org.tanzu.mcpclient.metrics.ChatWebSocketMetrics;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * WebSocket transport for chat at {@code /chat/ws}. One connection per browser carries any
+ * number of chat requests, instead of one HTTP request per message.
+ *
+ * <p>Frames are JSON arrays of the frame type and a stream ID chosen by the client:</p>
+ * <ul>
+ *   <li>{@code ["o", id, {"chat": ..., "documentIds": [...], "credits": n}]} opens a stream;
+ *   with {@code "lastEventId"} instead of a chat message it resumes a stream after a reconnect</li>
+ *   <li>{@code ["c", id, n]} grants the stream {@code n} more events</li>
+ *   <li>{@code ["x", id]} cancels the stream and its generation</li>
+ *   <li>{@code ["e", id, name, data, eventId]} is sent by the server for each event, with the
+ *   names and data of the SSE transport; {@code close} and {@code error} end the stream</li>
+ * </ul>
+ *
+ * <p>A stream is sent only as many events as it has credits for. The rest wait, up to
+ * {@code maxPendingEvents}, so a slow conversation does not hold up the others on the same
+ * connection; a stream whose client falls further behind is cancelled. Requests go through the same admission control, {@link ChatService} pipeline
+ * and resumable streams as {@code /chat}; closing the connection detaches its streams, which
+ * are cancelled unless the client resumes them in time.</p>
+ */
+@Component
+public class ChatWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatWebSocketHandler.class);
+
+    private final ChatService chatService;
+    private final ChatStreamAdmission chatStreamAdmission;
+    private final ChatChunkCoalescer chatChunkCoalescer;
+    private final ChatStageTimers chatStageTimers;
+    private final ResumableChatStreams resumableChatStreams;
+    private final int maxStreamsPerConnection;
+    private final int initialCredits;
+    private final int maxPendingEvents;
+    private final Duration sendTimeLimit;
+    private final int sendBufferLimit;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Waiting in the admission queue is the only blocking step; it runs on virtual threads
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+
+    private final AtomicLong streamsTotal = new AtomicLong();
+    private final AtomicLong cancelledTotal = new AtomicLong();
+    private final AtomicLong creditStalls = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+
+    public ChatWebSocketHandler(ChatService chatService, ChatStreamAdmission chatStreamAdmission,
+                                ChatChunkCoalescer chatChunkCoalescer, ChatStageTimers chatStageTimers,
+                                ResumableChatStreams resumableChatStreams,
+                                @Value("${chat.websocket.max-streams-per-connection:16}") int maxStreamsPerConnection,
+                                @Value("${chat.websocket.initial-credits:32}") int initialCredits,
+                                @Value("${chat.websocket.max-pending-events:256}") int maxPendingEvents,
+                                @Value("${chat.websocket.send-time-limit:10s}") Duration sendTimeLimit,
+                                @Value("${chat.websocket.send-buffer-limit:524288}") int sendBufferLimit) {
+        this.chatService = chatService;
+        this.chatStreamAdmission = chatStreamAdmission;
+        this.chatChunkCoalescer = chatChunkCoalescer;
+        this.chatStageTimers = chatStageTimers;
+        this.resumableChatStreams = resumableChatStreams;
+        this.maxStreamsPerConnection = maxStreamsPerConnection;
+        this.initialCredits = initialCredits;
+        this.maxPendingEvents = maxPendingEvents;
+        this.sendTimeLimit = sendTimeLimit;
+        this.sendBufferLimit = sendBufferLimit;
+
+        logger.info("Chat WebSocket transport configured: maxStreamsPerConnection={}, initialCredits={}, maxPendingEvents={}",
+                maxStreamsPerConnection, initialCredits, maxPendingEvents);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // The HTTP session keys the chat memory, as for /chat
+        Object httpSessionId = session.getAttributes().get(HttpSessionHandshakeInterceptor.HTTP_SESSION_ID_ATTR_NAME);
+        String conversationId = httpSessionId != null ? httpSessionId.toString() : session.getId();
+        // Sends of different streams come from different threads; the decorator serializes them
+        WebSocketSession concurrentSession = new ConcurrentWebSocketSessionDecorator(session,
+                (int) sendTimeLimit.toMillis(), sendBufferLimit);
+        connections.put(session.getId(), new Connection(concurrentSession, conversationId,
+                ChatController.streamOwner(session.getPrincipal(), conversationId)));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        Connection connection = connections.get(session.getId());
+        if (connection == null) {
+            return;
+        }
+        JsonNode frame;
+        try {
+            frame = objectMapper.readTree(message.getPayload());
+        } catch (JsonProcessingException e) {
+            frame = null;
+        }
+        if (frame == null || !frame.isArray() || !frame.path(1).canConvertToLong()) {
+            session.close(CloseStatus.BAD_DATA.withReason("Malformed chat frame"));
+            return;
+        }
+
+        long streamId = frame.get(1).asLong();
+        switch (frame.path(0).asText()) {
+            case "o" -> connection.open(streamId, frame.path(2));
+            case "c" -> connection.grant(streamId, frame.path(2).asInt());
+            case "x" -> connection.cancel(streamId);
+            default -> session.close(CloseStatus.BAD_DATA.withReason("Unknown chat frame type"));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Connection connection = connections.remove(session.getId());
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    public ChatWebSocketMetrics getMetrics() {
+        int openStreams = 0;
+        for (Connection connection : connections.values()) {
+            openStreams += connection.channels.size();
+        }
+        return new ChatWebSocketMetrics(
+                connections.size(),
+                openStreams,
+                streamsTotal.get(),
+                cancelledTotal.get(),
+                creditStalls.get(),
+                overflows.get()
+        );
+    }
+
+    /**
+     * Runs the chat request and writes its events to the resumable stream, exactly like
+     * the reactive SSE transport.
+     */
+    private void generate(ResumableChatStreams.Stream stream, ChatStreamAdmission.Ticket ticket, String chat,
+                          String conversationId, List<String> documentIds, long started) {
+        try {
+            Flux<String> chunks = chatService.reactiveChatStream(chat, conversationId, documentIds,
+                            degradedServers -> stream.emit("degraded", json(Map.of("servers", degradedServers))))
+                    .filter(chunk -> chunk != null && !chunk.isEmpty())
+                    .doOnNext(chunk -> stream.recordGeneratedToken());
+
+            ChatChunkEncoder chunkEncoder = new ChatChunkEncoder();
+
+            stream.bind(chatChunkCoalescer.coalesce(chunks)
+                    .doFinally(signal -> {
+                        ticket.release();
+                        chatStageTimers.streamDuration("websocket", signal)
+                                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    })
+                    .subscribe(
+                            chunk -> stream.emit("message", chunkEncoder.encodeContentUtf8(chunk)),
+                            error -> {
+                                stream.emit("error", json(chatError(error, conversationId)));
+                                stream.complete();
+                            },
+                            () -> {
+                                stream.emit("close", "");
+                                stream.complete();
+                            }));
+        } catch (RuntimeException e) {
+            ticket.release();
+            stream.emit("error", json(chatError(e, conversationId)));
+            stream.complete();
+        }
+    }
+
+    private ErrorDetails chatError(Throwable error, String conversationId) {
+        return ErrorDetails.fromException(
+                "Sorry, I encountered an error processing your request.",
+                error instanceof Exception ? (Exception) error : new RuntimeException(error),
+                Map.of(
+                        "conversationId", conversationId,
+                        "timestamp", java.time.Instant.now().toString()
+                )
+        );
+    }
+
+    private ErrorDetails capacityExceeded(String conversationId) {
+        return ErrorDetails.of(
+                "The chat service is busy right now. Please try again in a few seconds.",
+                "ChatCapacityExceeded",
+                null,
+                Map.of(
+                        "conversationId", conversationId,
+                        "retryAfterSeconds", String.valueOf(chatStreamAdmission.getRetryAfter().toSeconds())
+                )
+        );
+    }
+
+    private String json(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize chat event", e);
+        }
+    }
+
+    private final class Connection {
+        private final WebSocketSession session;
+        private final String conversationId;
+        private final String owner;
+        private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+        private Connection(WebSocketSession session, String conversationId, String owner) {
+            this.session = session;
+            this.conversationId = conversationId;
+            this.owner = owner;
+        }
+
+        private void open(long streamId, JsonNode request) {
+            if (channels.size() >= maxStreamsPerConnection || channels.containsKey(streamId)) {
+                sendQuietly(streamId, "error", json(ErrorDetails.of(
+                        "Too many chat requests are open on this connection.",
+                        "ChatStreamRejected",
+                        null,
+                        Map.of("conversationId", conversationId))), null);
+                return;
+            }
+            long started = System.nanoTime();
+            Channel channel = new Channel(this, streamId, request.path("credits").asInt(initialCredits));
+            channels.put(streamId, channel);
+            streamsTotal.incrementAndGet();
+
+            if (request.hasNonNull("lastEventId")) {
+                // A reconnect after the previous connection dropped: reattach instead of generating again
+                resumableChatStreams.resume(request.get("lastEventId").asText(), owner).ifPresentOrElse(
+                        resumption -> channel.attach(resumption.stream(), resumption.lastSequence()),
+                        () -> channel.fail(ChatController.notResumable(conversationId)));
+                return;
+            }
+
+            String chat = request.path("chat").asText("");
+            List<String> documentIds = new ArrayList<>();
+            request.path("documentIds").forEach(documentId -> {
+                if (!documentId.asText().isBlank()) {
+                    documentIds.add(documentId.asText());
+                }
+            });
+
+            Optional<ChatStreamAdmission.Ticket> admission = chatStreamAdmission.enter(owner);
+            if (admission.isEmpty()) {
+                channel.fail(capacityExceeded(conversationId));
+                return;
+            }
+            ChatStreamAdmission.Ticket ticket = admission.get();
+            channel.ticket = ticket;
+
+            executor.execute(() -> {
+                if (!ticket.awaitAdmission()) {
+                    channel.fail(capacityExceeded(conversationId));
+                    return;
+                }
+                ResumableChatStreams.Stream stream = resumableChatStreams.open(owner);
+                if (!channel.attach(stream, 0)) {
+                    ticket.release();
+                    stream.complete();
+                    return;
+                }
+                generate(stream, ticket, chat, conversationId, documentIds, started);
+            });
+        }
+
+        private void grant(long streamId, int credits) {
+            Channel channel = channels.get(streamId);
+            if (channel != null && credits > 0) {
+                channel.grant(credits);
+            }
+        }
+
+        private void cancel(long streamId) {
+            Channel channel = channels.remove(streamId);
+            if (channel != null) {
+                cancelledTotal.incrementAndGet();
+                channel.cancel();
+            }
+        }
+
+        private void close() {
+            for (Channel channel : channels.values()) {
+                channel.disconnect();
+            }
+            channels.clear();
+        }
+
+        private void send(ChatChunkEncoder frameEncoder, long streamId, String name, byte[] data, String eventId)
+                throws IOException {
+            // Event data is already JSON, except the empty data of close
+            session.sendMessage(new TextMessage(frameEncoder.socketFrame(streamId, name, data, eventId)));
+        }
+
+        private void sendQuietly(long streamId, String name, String data, String eventId) {
+            try {
+                send(new ChatChunkEncoder(), streamId, name, data.getBytes(StandardCharsets.UTF_8), eventId);
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Failed to send {} to chat WebSocket {}: {}", name, session.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * One chat request on a connection. Events beyond the granted credits wait in
+     * {@code pending}; all sends of a channel happen under its lock, so they stay in order.
+     */
+    private final class Channel implements ResumableChatStreams.Listener {
+        private final Connection connection;
+        private final long id;
+
+        // Guarded by lock
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Deque<ResumableChatStreams.Event> pending = new ArrayDeque<>();
+        private final ChatChunkEncoder frameEncoder = new ChatChunkEncoder();
+        private int credits;
+        private boolean streamCompleted;
+        private boolean closed;
+        private ResumableChatStreams.Stream stream;
+        private volatile ChatStreamAdmission.Ticket ticket;
+
+        private Channel(Connection connection, long id, int credits) {
+            this.connection = connection;
+            this.id = id;
+            this.credits = credits;
+        }
+
+        /**
+         * Binds the generated stream, unless the channel was cancelled or disconnected while
+         * waiting for admission.
+         */
+        private boolean start(ResumableChatStreams.Stream stream) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                this.stream = stream;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Binds the stream and attaches to it after {@code afterSequence}, unless the channel
+         * was closed first.
+         */
+        private boolean attach(ResumableChatStreams.Stream stream, long afterSequence) {
+            if (!start(stream)) {
+                return false;
+            }
+            stream.attach(afterSequence, this);
+            // Closed while attaching: its detach may have run before the attach
+            if (isClosed()) {
+                stream.detach(this);
+            }
+            return true;
+        }
+
+        private boolean isClosed() {
+            lock.lock();
+            try {
+                return closed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void onEvent(ResumableChatStreams.Event event) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                if (credits > 0 && pending.isEmpty()) {
+                    credits--;
+                    send(event);
+                    return;
+                }
+                if (pending.size() < maxPendingEvents) {
+                    creditStalls.incrementAndGet();
+                    pending.addLast(event);
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            overflow();
+        }
+
+        @Override
+        public void onHeartbeat() {
+            if (isClosed()) {
+                return;
+            }
+            // A half-open TCP connection is only noticed when a write fails
+            try {
+                connection.session.sendMessage(new PingMessage());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            lock.lock();
+            try {
+                streamCompleted = true;
+                removeIfDrained();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void grant(int granted) {
+            lock.lock();
+            try {
+                credits += granted;
+                while (credits > 0 && !pending.isEmpty()) {
+                    credits--;
+                    send(pending.pollFirst());
+                }
+                removeIfDrained();
+                return;
+            } catch (UncheckedIOException | SessionLimitExceededException e) {
+                logger.debug("Failed to send to chat WebSocket: {}", e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+            // The connection is unusable; the client can resume the stream on a new one
+            connection.channels.remove(id, this);
+            disconnect();
+        }
+
+        /**
+         * Ends a stream that could not be started or resumed. The error is sent regardless
+         * of credits.
+         */
+        private void fail(ErrorDetails errorDetails) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            } finally {
+                lock.unlock();
+            }
+            connection.channels.remove(id, this);
+            connection.sendQuietly(id, "error", json(errorDetails), null);
+        }
+
+        private void cancel() {
+            ResumableChatStreams.Stream cancelled = close();
+            if (cancelled != null) {
+                cancelled.detach(this);
+                cancelled.cancel();
+            }
+        }
+
+        private void disconnect() {
+            ResumableChatStreams.Stream detached = close();
+            if (detached != null) {
+                // Keeps running for a while, so that the client can resume it on a new connection
+                detached.detach(this);
+            }
+        }
+
+        /**
+         * Marks the channel closed and returns its stream, or releases the admission ticket
+         * if no stream was started yet.
+         */
+        private ResumableChatStreams.Stream close() {
+            lock.lock();
+            try {
+                closed = true;
+                pending.clear();
+                if (stream == null && ticket != null) {
+                    ticket.release();
+                }
+                return stream;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Ends a stream whose client stopped granting credits. The client will not resume it
+         * on this channel, so its generation is cancelled.
+         */
+        private void overflow() {
+            overflows.incrementAndGet();
+            connection.channels.remove(id, this);
+            cancel();
+            connection.sendQuietly(id, "error", json(ErrorDetails.of(
+                    "The chat client stopped reading this answer.",
+                    "ChatStreamOverflow",
+                    null,
+                    Map.of("conversationId", connection.conversationId))), null);
+        }
+
+        private void removeIfDrained() {
+            if (streamCompleted && pending.isEmpty()) {
+                connection.channels.remove(id, this);
+            }
+        }
+
+        private void send(ResumableChatStreams.Event event) {
+            try {
+                connection.send(frameEncoder, id, event.name(), event.data(), event.id());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
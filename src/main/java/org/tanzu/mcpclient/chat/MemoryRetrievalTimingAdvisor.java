@@ -0,0 +1,77 @@
+package org.tanzu.mcpclient.chat;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.tanzu.mcpclient.metrics.ChatStageTimers;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pair of advisors placed directly before and after the chat memory advisor to measure
+ * how long it takes to load the conversation. The first one stamps the request context,
+ * the second one records the elapsed time once the memory advisor has passed the request
+ * on. Neither changes the request or the response.
+ */
+final class MemoryRetrievalTimingAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private static final String STARTED = MemoryRetrievalTimingAdvisor.class.getName() + ".started";
+
+    private final ChatStageTimers chatStageTimers;
+    private final boolean start;
+    private final int order;
+
+    private MemoryRetrievalTimingAdvisor(ChatStageTimers chatStageTimers, boolean start, int order) {
+        this.chatStageTimers = chatStageTimers;
+        this.start = start;
+        this.order = order;
+    }
+
+    /**
+     * Returns the memory advisor together with the advisors that time it.
+     */
+    static List<Advisor> around(Advisor memoryAdvisor, ChatStageTimers chatStageTimers) {
+        return List.of(
+                new MemoryRetrievalTimingAdvisor(chatStageTimers, true, memoryAdvisor.getOrder() - 1),
+                memoryAdvisor,
+                new MemoryRetrievalTimingAdvisor(chatStageTimers, false, memoryAdvisor.getOrder() + 1));
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        return chain.nextCall(measure(request));
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        return chain.nextStream(measure(request));
+    }
+
+    private ChatClientRequest measure(ChatClientRequest request) {
+        if (start) {
+            return request.mutate().context(STARTED, System.nanoTime()).build();
+        }
+        if (request.context().get(STARTED) instanceof Long started) {
+            Timer timer = chatStageTimers.memoryRetrieval();
+            timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        return request;
+    }
+
+    @Override
+    public String getName() {
+        return start ? "MemoryRetrievalTimingStart" : "MemoryRetrievalTimingEnd";
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,72 @@
+package org.tanzu.mcpclient.chat;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * {@link VectorStore} for a single chat request whose similarity search was started
+ * speculatively when the request arrived. When the {@code QuestionAnswerAdvisor} issues the
+ * same {@link SearchRequest}, it gets the prefetched result (waiting for it only if it is still
+ * running) instead of a second search. Anything else goes to the underlying store.
+ */
+class PrefetchedVectorStore implements VectorStore {
+
+    private final VectorStore delegate;
+    private final SearchRequest prefetchedRequest;
+    private final CompletableFuture<List<Document>> prefetchedDocuments;
+
+    PrefetchedVectorStore(VectorStore delegate, SearchRequest prefetchedRequest,
+                          CompletableFuture<List<Document>> prefetchedDocuments) {
+        this.delegate = delegate;
+        this.prefetchedRequest = prefetchedRequest;
+        this.prefetchedDocuments = prefetchedDocuments;
+    }
+
+    /**
+     * The search that was started ahead of the advisor chain.
+     */
+    SearchRequest getPrefetchedRequest() {
+        return prefetchedRequest;
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        if (!prefetchedRequest.equals(request)) {
+            return delegate.similaritySearch(request);
+        }
+        try {
+            return prefetchedDocuments.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        delegate.add(documents);
+    }
+
+    @Override
+    public void delete(List<String> idList) {
+        delegate.delete(idList);
+    }
+
+    @Override
+    public void delete(Filter.Expression filterExpression) {
+        delegate.delete(filterExpression);
+    }
+}
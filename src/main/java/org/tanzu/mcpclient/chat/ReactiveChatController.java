@@ -0,0 +1,217 @@
+package org.tanzu.mcpclient.chat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.tanzu.mcpclient.metrics.ChatStageTimers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reactive variant of {@link ChatController}, enabled with {@code chat.transport.mode=reactive}.
+ * Returns the response as a {@code Flux<ServerSentEvent>} so that Spring MVC writes events
+ * as they are produced without dedicating a thread to each stream, and resolves MCP tools
+ * over shared async sessions.
+ */
+@RestController
+@ConditionalOnProperty(name = "chat.transport.mode", havingValue = "reactive")
+public class ReactiveChatController implements DisposableBean {
+
+    private final ChatService chatService;
+    private final ChatStreamAdmission chatStreamAdmission;
+    private final ChatChunkCoalescer chatChunkCoalescer;
+    private final ChatStageTimers chatStageTimers;
+    private final ResumableChatStreams resumableChatStreams;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Waiting in the admission queue is the only blocking step; it runs on virtual threads
+    private final Scheduler admissionScheduler = Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+
+    public ReactiveChatController(ChatService chatService, ChatStreamAdmission chatStreamAdmission,
+                                  ChatChunkCoalescer chatChunkCoalescer, ChatStageTimers chatStageTimers,
+                                  ResumableChatStreams resumableChatStreams) {
+        this.chatService = chatService;
+        this.chatStreamAdmission = chatStreamAdmission;
+        this.chatChunkCoalescer = chatChunkCoalescer;
+        this.chatStageTimers = chatStageTimers;
+        this.resumableChatStreams = resumableChatStreams;
+    }
+
+    @Override
+    public void destroy() {
+        admissionScheduler.dispose();
+    }
+
+    @GetMapping(value = "/chat", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> chatStream(@RequestParam("chat") String chat,
+                                                    @RequestParam(value = "documentId", required = false) Optional<String> documentId,
+                                                    @RequestParam(value = "documentIds", required = false) Optional<List<String>> documentIds,
+                                                    @RequestHeader(value = ChatController.LAST_EVENT_ID, required = false) String lastEventId,
+                                                    HttpServletRequest request,
+                                                    HttpServletResponse response,
+                                                    Principal principal) {
+
+        long started = System.nanoTime();
+        String conversationId = request.getSession().getId();
+        String owner = ChatController.streamOwner(principal, conversationId);
+
+        if (lastEventId != null) {
+            // A reconnect after a dropped connection: reattach instead of generating the answer again
+            return resumableChatStreams.resume(lastEventId, owner)
+                    .map(resumption -> attach(resumption.stream(), resumption.lastSequence()))
+                    .orElseGet(() -> Flux.just(event("error", ChatController.notResumable(conversationId))));
+        }
+
+        List<String> finalDocumentIds = ChatController.determineDocumentIds(documentId, documentIds);
+
+        Optional<ChatStreamAdmission.Ticket> admission = chatStreamAdmission.enter(owner);
+        if (admission.isEmpty()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(chatStreamAdmission.getRetryAfter().toSeconds()));
+            return Flux.just(capacityExceededEvent(conversationId));
+        }
+        ChatStreamAdmission.Ticket ticket = admission.get();
+        AtomicBoolean generating = new AtomicBoolean();
+
+        return Mono.fromCallable(ticket::awaitAdmission)
+                .subscribeOn(admissionScheduler)
+                .flatMapMany(admitted -> {
+                    if (!admitted) {
+                        return Flux.just(capacityExceededEvent(conversationId));
+                    }
+                    generating.set(true);
+                    // The generation writes to the resumable stream, which outlives this connection
+                    ResumableChatStreams.Stream stream = resumableChatStreams.open(owner);
+                    Flux<ServerSentEvent<String>> events = attach(stream, 0);
+                    // Cancelled once no client has been attached for a while, which stops the model and tool calls
+                    stream.bind(streamResponse(chat, conversationId, finalDocumentIds, started, stream)
+                            .doFinally(signal -> ticket.release())
+                            .subscribe(event -> stream.emit(event.event(), event.data()),
+                                    error -> stream.complete(),
+                                    stream::complete));
+                    return events;
+                })
+                // Until the generation has started, the ticket belongs to this connection
+                .doFinally(signal -> {
+                    if (!generating.get()) {
+                        ticket.release();
+                    }
+                });
+    }
+
+    /**
+     * Returns the events of a stream after {@code afterSequence}, followed by its live events.
+     * Cancelling only detaches this connection; the generation keeps running for a while so
+     * that the client can reconnect with {@code Last-Event-ID}.
+     */
+    private Flux<ServerSentEvent<String>> attach(ResumableChatStreams.Stream stream, long afterSequence) {
+        return Flux.create(sink -> {
+            ResumableChatStreams.Listener listener = new ResumableChatStreams.Listener() {
+                @Override
+                public void onEvent(ResumableChatStreams.Event event) {
+                    sink.next(ServerSentEvent.builder(event.dataAsString()).id(event.id()).event(event.name()).build());
+                }
+
+                @Override
+                public void onHeartbeat() {
+                    sink.next(ServerSentEvent.<String>builder().comment("heartbeat").build());
+                }
+
+                @Override
+                public void onComplete() {
+                    sink.complete();
+                }
+            };
+            sink.onDispose(() -> stream.detach(listener));
+            stream.attach(afterSequence, listener);
+        });
+    }
+
+    private Flux<ServerSentEvent<String>> streamResponse(String chat, String conversationId, List<String> documentIds,
+                                                         long started, ResumableChatStreams.Stream stream) {
+        List<String> degraded = new CopyOnWriteArrayList<>();
+
+        Flux<String> chunks = chatService.reactiveChatStream(chat, conversationId, documentIds, degraded::addAll)
+                .filter(chunk -> chunk != null && !chunk.isEmpty())
+                .doOnNext(chunk -> stream.recordGeneratedToken());
+
+        ChatChunkEncoder chunkEncoder = new ChatChunkEncoder();
+
+        return chatChunkCoalescer.coalesce(chunks)
+                .map(chunk -> ServerSentEvent.builder(chunkEncoder.encodeContent(chunk)).event("message").build())
+                // The degraded notice is known once tools are resolved, i.e. before the first chunk
+                .switchOnFirst((first, events) -> degraded.isEmpty()
+                        ? events
+                        : events.startWith(event("degraded", Map.of("servers", List.copyOf(degraded)))))
+                .concatWith(Mono.just(ServerSentEvent.builder("").event("close").build()))
+                .doFinally(signal -> chatStageTimers.streamDuration("reactive", signal)
+                        .record(System.nanoTime() - started, TimeUnit.NANOSECONDS))
+                .onErrorResume(error -> Flux.just(errorEvent(error, conversationId)));
+    }
+
+    private ServerSentEvent<String> event(String name, Object payload) {
+        try {
+            return ServerSentEvent.builder(objectMapper.writeValueAsString(payload)).event(name).build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + name + " event", e);
+        }
+    }
+
+    private ServerSentEvent<String> errorEvent(Throwable error, String conversationId) {
+        Map<String, String> context = Map.of(
+                "conversationId", conversationId,
+                "timestamp", java.time.Instant.now().toString()
+        );
+
+        ErrorDetails errorDetails = ErrorDetails.fromException(
+                "Sorry, I encountered an error processing your request.",
+                error instanceof Exception ? (Exception) error : new RuntimeException(error),
+                context
+        );
+        return event("error", errorDetails);
+    }
+
+    private ServerSentEvent<String> capacityExceededEvent(String conversationId) {
+        Duration retryAfter = chatStreamAdmission.getRetryAfter();
+        Map<String, String> context = Map.of(
+                "conversationId", conversationId,
+                "retryAfterSeconds", String.valueOf(retryAfter.toSeconds())
+        );
+
+        ErrorDetails errorDetails = ErrorDetails.of(
+                "The chat service is busy right now. Please try again in a few seconds.",
+                "ChatCapacityExceeded",
+                null,
+                context
+        );
+        try {
+            return ServerSentEvent.builder(objectMapper.writeValueAsString(errorDetails))
+                    .event("error")
+                    .retry(retryAfter)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize error event", e);
+        }
+    }
+}
@@ -0,0 +1,539 @@
+package org.tanzu.mcpclient.chat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.metrics.ChatCancellationMetrics;
+import org.tanzu.mcpclient.metrics.ChatResumeMetrics;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the events of in-flight chat streams so that a client whose connection dropped
+ * can reattach to the running generation instead of asking again. Every event gets an ID
+ * of the form {@code <streamId>:<sequence>}, and the most recent {@code bufferEvents}
+ * events of each stream are kept in a ring buffer. A reconnect that sends the last ID it
+ * saw as {@code Last-Event-ID} receives the missing events and then the live ones.
+ *
+ * <p>The generation writes to the stream independently of any connection, and finished
+ * streams stay replayable for {@code retention} so that a client that dropped just before
+ * the end still gets the tail of the answer. A stream that has had no connection for
+ * {@code cancelAfterDisconnect} is abandoned: its generation is disposed, which cancels the
+ * model stream and any tool calls in flight. Connections only notice that the client went
+ * away when they write, so every {@code heartbeatInterval} each connection is sent a
+ * heartbeat, also while the model is silent during tool calls.</p>
+ *
+ * <p>Listeners are called outside the stream's lock, one signal at a time per listener on a
+ * virtual thread, so that a stalled connection holds up neither the generation nor the
+ * other connections.</p>
+ */
+@Component
+public class ResumableChatStreams implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumableChatStreams.class);
+
+    // Signals passed to listeners besides events
+    private static final Object HEARTBEAT = new Object();
+    private static final Object COMPLETE = new Object();
+
+    private final int bufferEvents;
+    private final Duration retention;
+    private final Duration cancelAfterDisconnect;
+    private final Map<String, Stream> streams = new ConcurrentHashMap<>();
+    private final Disposable heartbeats;
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong streamsTotal = new AtomicLong();
+    private final AtomicLong resumedTotal = new AtomicLong();
+    private final AtomicLong replayedEventsTotal = new AtomicLong();
+    private final AtomicLong unavailableTotal = new AtomicLong();
+    private final AtomicLong completedTotal = new AtomicLong();
+    private final AtomicLong completedTokens = new AtomicLong();
+    private final AtomicLong cancelledTotal = new AtomicLong();
+    private final AtomicLong tokensBeforeCancel = new AtomicLong();
+    private final AtomicLong estimatedTokensAvoided = new AtomicLong();
+
+    public ResumableChatStreams(@Value("${chat.stream.resume.buffer-events:256}") int bufferEvents,
+                                @Value("${chat.stream.resume.retention:60s}") Duration retention,
+                                @Value("${chat.stream.cancel-after-disconnect:15s}") Duration cancelAfterDisconnect,
+                                @Value("${chat.stream.heartbeat-interval:5s}") Duration heartbeatInterval) {
+        this.bufferEvents = bufferEvents;
+        this.retention = retention;
+        this.cancelAfterDisconnect = cancelAfterDisconnect;
+        this.heartbeats = heartbeatInterval.isZero() ? Disposables.disposed()
+                : Schedulers.boundedElastic().schedulePeriodically(this::sendHeartbeats,
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        logger.info("Resumable chat streams configured: bufferEvents={}, retention={}, cancelAfterDisconnect={}, heartbeatInterval={}",
+                bufferEvents, retention, cancelAfterDisconnect, heartbeatInterval);
+    }
+
+    /**
+     * Registers a new stream for the given owner. The caller attaches its connection and
+     * then writes the generated events with {@link Stream#emit(String, String)}.
+     */
+    public Stream open(String owner) {
+        Stream stream = new Stream(UUID.randomUUID().toString(), owner);
+        streams.put(stream.id, stream);
+        streamsTotal.incrementAndGet();
+        return stream;
+    }
+
+    /**
+     * Looks up the stream a {@code Last-Event-ID} belongs to. Only the owner of a stream can
+     * resume it, and only while every event after the given one is still buffered.
+     *
+     * @return the stream and the sequence to replay after, or empty if it cannot be resumed
+     */
+    public Optional<Resumption> resume(String lastEventId, String owner) {
+        int separator = lastEventId.lastIndexOf(':');
+        Stream stream = separator > 0 ? streams.get(lastEventId.substring(0, separator)) : null;
+        long sequence;
+        try {
+            sequence = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            sequence = -1;
+        }
+        if (stream == null || sequence < 0 || !stream.owner.equals(owner) || !stream.canReplayAfter(sequence)) {
+            unavailableTotal.incrementAndGet();
+            logger.debug("Chat stream for Last-Event-ID {} cannot be resumed", lastEventId);
+            return Optional.empty();
+        }
+        resumedTotal.incrementAndGet();
+        return Optional.of(new Resumption(stream, sequence));
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.dispose();
+        deliveryExecutor.shutdownNow();
+    }
+
+    private void sendHeartbeats() {
+        for (Stream stream : streams.values()) {
+            stream.heartbeat();
+        }
+    }
+
+    public ChatResumeMetrics getMetrics() {
+        int running = 0;
+        for (Stream stream : streams.values()) {
+            if (!stream.isCompleted()) {
+                running++;
+            }
+        }
+        return new ChatResumeMetrics(
+                bufferEvents,
+                retention.toMillis(),
+                running,
+                streams.size() - running,
+                streamsTotal.get(),
+                resumedTotal.get(),
+                replayedEventsTotal.get(),
+                unavailableTotal.get()
+        );
+    }
+
+    /**
+     * Generations cancelled because their client went away. The tokens avoided are estimated
+     * from the average length of completed answers.
+     */
+    public ChatCancellationMetrics getCancellationMetrics() {
+        long completed = completedTotal.get();
+        return new ChatCancellationMetrics(
+                cancelAfterDisconnect.toMillis(),
+                cancelledTotal.get(),
+                tokensBeforeCancel.get(),
+                estimatedTokensAvoided.get(),
+                completed > 0 ? (double) completedTokens.get() / completed : 0.0
+        );
+    }
+
+    /**
+     * A stream to reattach to, and the sequence of the last event the client received.
+     */
+    public record Resumption(Stream stream, long lastSequence) {
+    }
+
+    /**
+     * An event of a chat stream. {@code data} is UTF-8 encoded once when the event is emitted
+     * and sent as is, so it must not contain line breaks.
+     */
+    public record Event(String id, String name, byte[] data) {
+
+        public String dataAsString() {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Receives the events of a stream. Callbacks run in order and never concurrently for the
+     * same listener, but not while the stream is locked; they may block on the connection. A
+     * callback that throws detaches the listener.
+     */
+    public interface Listener {
+
+        void onEvent(Event event);
+
+        /**
+         * Writes something the client ignores, so that a closed connection is noticed.
+         * Skipped while earlier signals are still being delivered to this listener.
+         */
+        void onHeartbeat();
+
+        void onComplete();
+    }
+
+    public final class Stream {
+        private final String id;
+        private final String owner;
+
+        // Guarded by lock
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Event[] ring = new Event[bufferEvents];
+        private final List<Attachment> attachments = new ArrayList<>(1);
+        private long lastSequence;
+        private boolean completed;
+        private boolean cancelled;
+        private Disposable generation;
+        private long generatedTokens;
+        private long detachments;
+
+        private Stream(String id, String owner) {
+            this.id = id;
+            this.owner = owner;
+        }
+
+        /**
+         * Sets the subscription that produces this stream, so that it can be cancelled
+         * once no client is attached any more.
+         */
+        public void bind(Disposable generation) {
+            lock.lock();
+            try {
+                if (!cancelled) {
+                    this.generation = completed ? null : generation;
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            generation.dispose();
+        }
+
+        /**
+         * Counts a chunk streamed by the model, which is about one token.
+         */
+        public void recordGeneratedToken() {
+            lock.lock();
+            try {
+                generatedTokens++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public void emit(String name, String data) {
+            emit(name, data.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Appends an event with UTF-8 encoded data to the buffer and passes it to the
+         * attached listeners. The data must not be modified afterwards.
+         */
+        public void emit(String name, byte[] data) {
+            List<Attachment> receivers;
+            lock.lock();
+            try {
+                if (completed) {
+                    return;
+                }
+                lastSequence++;
+                Event event = new Event(id + ":" + lastSequence, name, data);
+                ring[(int) (lastSequence % ring.length)] = event;
+                receivers = List.copyOf(attachments);
+                receivers.forEach(attachment -> attachment.enqueue(event));
+            } finally {
+                lock.unlock();
+            }
+            receivers.forEach(Attachment::drain);
+        }
+
+        /**
+         * Ends the stream. Listeners are completed, and the buffer stays available for
+         * late reconnects until the retention has passed.
+         */
+        public void complete() {
+            List<Attachment> receivers;
+            lock.lock();
+            try {
+                if (completed) {
+                    return;
+                }
+                completed = true;
+                generation = null;
+                completedTotal.incrementAndGet();
+                completedTokens.addAndGet(generatedTokens);
+                receivers = completeAttachments();
+            } finally {
+                lock.unlock();
+            }
+            receivers.forEach(Attachment::drain);
+            Schedulers.parallel().schedule(() -> streams.remove(id), retention.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Replays the buffered events after {@code afterSequence} to the listener and then
+         * keeps it attached for live events, or completes it if the stream has ended.
+         */
+        public void attach(long afterSequence, Listener listener) {
+            Attachment attachment = new Attachment(this, listener);
+            lock.lock();
+            try {
+                for (long sequence = Math.max(afterSequence, oldestSequence() - 1) + 1; sequence <= lastSequence; sequence++) {
+                    attachment.enqueue(ring[(int) (sequence % ring.length)]);
+                    if (afterSequence > 0) {
+                        replayedEventsTotal.incrementAndGet();
+                    }
+                }
+                if (completed) {
+                    attachment.enqueue(COMPLETE);
+                } else {
+                    attachments.add(attachment);
+                }
+            } finally {
+                lock.unlock();
+            }
+            attachment.drain();
+        }
+
+        public void detach(Listener listener) {
+            lock.lock();
+            try {
+                for (Attachment attachment : List.copyOf(attachments)) {
+                    if (attachment.listener == listener) {
+                        attachment.detached = true;
+                        removeAttachment(attachment);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void heartbeat() {
+            List<Attachment> receivers;
+            lock.lock();
+            try {
+                receivers = List.copyOf(attachments);
+            } finally {
+                lock.unlock();
+            }
+            for (Attachment attachment : receivers) {
+                // A listener that is still busy writing does not need a heartbeat to notice a closed connection
+                if (attachment.isIdle()) {
+                    attachment.enqueue(HEARTBEAT);
+                    attachment.drain();
+                }
+            }
+        }
+
+        private void detach(Attachment attachment) {
+            lock.lock();
+            try {
+                removeAttachment(attachment);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void removeAttachment(Attachment attachment) {
+            if (attachments.remove(attachment) && attachments.isEmpty() && !completed) {
+                long detachment = ++detachments;
+                Schedulers.parallel().schedule(() -> cancelIfDetached(detachment),
+                        cancelAfterDisconnect.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private List<Attachment> completeAttachments() {
+            List<Attachment> receivers = List.copyOf(attachments);
+            receivers.forEach(attachment -> attachment.enqueue(COMPLETE));
+            attachments.clear();
+            return receivers;
+        }
+
+        /**
+         * Cancels the generation at the client's request. Attached listeners are completed.
+         */
+        public void cancel() {
+            Disposable cancelledGeneration;
+            long tokens;
+            List<Attachment> receivers;
+            lock.lock();
+            try {
+                if (completed) {
+                    return;
+                }
+                receivers = completeAttachments();
+                tokens = generatedTokens;
+                cancelledGeneration = markCancelled();
+            } finally {
+                lock.unlock();
+            }
+            receivers.forEach(Attachment::drain);
+            dispose(cancelledGeneration, tokens, "cancelled by the client");
+        }
+
+        /**
+         * Cancels the generation if no client has attached since the given detachment.
+         */
+        private void cancelIfDetached(long detachment) {
+            Disposable abandoned;
+            long tokens;
+            lock.lock();
+            try {
+                if (completed || !attachments.isEmpty() || detachments != detachment) {
+                    return;
+                }
+                tokens = generatedTokens;
+                abandoned = markCancelled();
+            } finally {
+                lock.unlock();
+            }
+            dispose(abandoned, tokens, "no client attached for " + cancelAfterDisconnect);
+        }
+
+        private Disposable markCancelled() {
+            completed = true;
+            cancelled = true;
+            Disposable cancelledGeneration = generation;
+            generation = null;
+            return cancelledGeneration;
+        }
+
+        private void dispose(Disposable cancelledGeneration, long tokens, String reason) {
+            streams.remove(id);
+
+            long completedStreams = completedTotal.get();
+            long averageTokens = completedStreams > 0 ? completedTokens.get() / completedStreams : 0;
+            cancelledTotal.incrementAndGet();
+            tokensBeforeCancel.addAndGet(tokens);
+            estimatedTokensAvoided.addAndGet(Math.max(0, averageTokens - tokens));
+            logger.debug("Cancelling chat stream {} after {} tokens, {}", id, tokens, reason);
+            if (cancelledGeneration != null) {
+                cancelledGeneration.dispose();
+            }
+        }
+
+        private boolean isCompleted() {
+            lock.lock();
+            try {
+                return completed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean canReplayAfter(long sequence) {
+            lock.lock();
+            try {
+                return sequence <= lastSequence && sequence >= oldestSequence() - 1;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long oldestSequence() {
+            return Math.max(1, lastSequence - ring.length + 1);
+        }
+    }
+
+    /**
+     * A listener attached to a stream. Signals are queued while the stream is locked and
+     * delivered afterwards by at most one virtual thread at a time, in queue order.
+     */
+    private final class Attachment {
+        private final Stream stream;
+        private final Listener listener;
+        private final Queue<Object> signals = new ConcurrentLinkedQueue<>();
+        // Number of drain requests not yet served; the request that raises it from zero delivers
+        private final AtomicInteger drainRequests = new AtomicInteger();
+        private volatile boolean detached;
+
+        private Attachment(Stream stream, Listener listener) {
+            this.stream = stream;
+            this.listener = listener;
+        }
+
+        private void enqueue(Object signal) {
+            signals.add(signal);
+        }
+
+        private boolean isIdle() {
+            return drainRequests.get() == 0 && signals.isEmpty();
+        }
+
+        private void drain() {
+            if (drainRequests.getAndIncrement() != 0) {
+                return;
+            }
+            try {
+                deliveryExecutor.execute(this::deliver);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+            }
+        }
+
+        private void deliver() {
+            int missed = 1;
+            do {
+                Object signal;
+                while ((signal = signals.poll()) != null) {
+                    if (!detached) {
+                        dispatch(signal);
+                    }
+                }
+                missed = drainRequests.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void dispatch(Object signal) {
+            try {
+                if (signal instanceof Event event) {
+                    listener.onEvent(event);
+                } else if (signal == HEARTBEAT) {
+                    listener.onHeartbeat();
+                } else if (signal == COMPLETE) {
+                    detached = true;
+                    listener.onComplete();
+                }
+            } catch (RuntimeException e) {
+                // A broken connection must not end the generation; the client can reconnect
+                logger.debug("Detaching listener from chat stream {}: {}", stream.id, e.getMessage());
+                detached = true;
+                stream.detach(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.tanzu.mcpclient.mcp;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+
+import java.util.Map;
+
+/**
+ * {@link ToolCallback} for a single MCP tool that is invoked over the shared async session
+ * of its server. The {@code tools/call} itself is non-blocking; {@link ToolCallback#call}
+ * is a synchronous contract, so the result is awaited on the calling thread, which Spring AI
+ * moves off the event loop (bounded elastic scheduler) for streaming tool execution.
+ */
+public class AsyncMcpSessionToolCallback implements McpServerToolCallback {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncMcpSessionToolCallback.class);
+
+    private final McpAsyncSessions mcpAsyncSessions;
+    private final String serverUrl;
+    private final McpSchema.Tool tool;
+    private final ToolDefinition toolDefinition;
+
+    public AsyncMcpSessionToolCallback(McpAsyncSessions mcpAsyncSessions, String serverUrl, McpSchema.Tool tool,
+                                       ToolDefinition toolDefinition) {
+        this.mcpAsyncSessions = mcpAsyncSessions;
+        this.serverUrl = serverUrl;
+        this.tool = tool;
+        this.toolDefinition = toolDefinition;
+    }
+
+    @Override
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    @Override
+    public McpSchema.Tool getTool() {
+        return tool;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return toolDefinition;
+    }
+
+    @Override
+    public String call(String toolInput) {
+        Map<String, Object> arguments = ModelOptionsUtils.jsonToMap(toolInput);
+
+        McpSchema.CallToolResult response;
+        try {
+            response = mcpAsyncSessions.callTool(serverUrl, new McpSchema.CallToolRequest(tool.name(), arguments))
+                    .block();
+        } catch (Exception e) {
+            // Interrupting block() cancels the pending tools/call on the shared session
+            if (McpServerToolCallback.isCancellation(e)) {
+                logger.debug("Call of tool {} on {} cancelled", tool.name(), serverUrl);
+            } else {
+                logger.error("Exception while calling tool {} on {}", tool.name(), serverUrl, e);
+            }
+            throw new ToolExecutionException(toolDefinition, e);
+        }
+
+        if (response == null) {
+            throw new ToolExecutionException(toolDefinition,
+                    new IllegalStateException("No result from tool " + tool.name()));
+        }
+        if (response.isError() != null && response.isError()) {
+            logger.error("Error calling tool {}: {}", tool.name(), response.content());
+            throw new ToolExecutionException(toolDefinition,
+                    new IllegalStateException("Error calling tool: " + response.content()));
+        }
+        return ModelOptionsUtils.toJsonString(response.content());
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return call(toolInput);
+    }
+}
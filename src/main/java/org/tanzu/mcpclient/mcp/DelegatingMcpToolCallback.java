@@ -0,0 +1,45 @@
+package org.tanzu.mcpclient.mcp;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * Base class for callbacks that add behavior around another {@link McpServerToolCallback}.
+ * MCP tools ignore the tool context, so both {@code call} variants go through
+ * {@link #call(String)}.
+ */
+abstract class DelegatingMcpToolCallback implements McpServerToolCallback {
+
+    protected final McpServerToolCallback delegate;
+
+    protected DelegatingMcpToolCallback(McpServerToolCallback delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getServerUrl() {
+        return delegate.getServerUrl();
+    }
+
+    @Override
+    public McpSchema.Tool getTool() {
+        return delegate.getTool();
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return call(toolInput);
+    }
+}
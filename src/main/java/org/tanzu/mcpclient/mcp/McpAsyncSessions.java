@@ -0,0 +1,124 @@
+package org.tanzu.mcpclient.mcp;
+
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.resilience.CircuitBreakers;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Long-lived {@link McpAsyncClient} sessions used by the reactive chat mode.
+ * An async client multiplexes concurrent requests over one connection, so a single
+ * session per server is shared by all streams. A session is connected on first use
+ * and reconnected on the next use after it has been invalidated.
+ *
+ * <p>Tool listing and tool calls go through the server's circuit breaker, shared with
+ * the pooled sessions, so an open breaker fails them without contacting the server.</p>
+ */
+@Component
+public class McpAsyncSessions implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpAsyncSessions.class);
+
+    private final McpClientFactory mcpClientFactory;
+    private final McpToolCatalog mcpToolCatalog;
+    private final CircuitBreakers circuitBreakers;
+    private final Map<String, Mono<McpAsyncClient>> sessions = new ConcurrentHashMap<>();
+    private final Map<String, McpAsyncClient> clients = new ConcurrentHashMap<>();
+
+    public McpAsyncSessions(McpClientFactory mcpClientFactory, McpToolCatalog mcpToolCatalog,
+                            CircuitBreakers circuitBreakers) {
+        this.mcpClientFactory = mcpClientFactory;
+        this.mcpToolCatalog = mcpToolCatalog;
+        this.circuitBreakers = circuitBreakers;
+    }
+
+    /**
+     * Returns the initialized session for a server, connecting it if necessary.
+     */
+    public Mono<McpAsyncClient> getSession(String serverUrl) {
+        return sessions.computeIfAbsent(serverUrl, this::connect);
+    }
+
+    /**
+     * Calls a tool over the server's session. Errors returned by the server leave the session
+     * in place; any other failure drops it so that the next call reconnects.
+     */
+    public Mono<McpSchema.CallToolResult> callTool(String serverUrl, McpSchema.CallToolRequest request) {
+        return circuitBreakers.forMcpServer(serverUrl).protect(getSession(serverUrl)
+                        .flatMap(client -> client.callTool(request))
+                        .doOnError(McpAsyncSessions::isTransportFailure, e -> invalidate(serverUrl)),
+                McpAsyncSessions::isTransportFailure);
+    }
+
+    /**
+     * Drops the session for a server after a transport failure so that the next call reconnects.
+     */
+    public void invalidate(String serverUrl) {
+        sessions.remove(serverUrl);
+        McpAsyncClient client = clients.remove(serverUrl);
+        if (client != null) {
+            client.closeGracefully().onErrorComplete().subscribe();
+        }
+    }
+
+    /**
+     * Returns non-blocking tool callbacks for a server. Cached catalog entries are used as is;
+     * otherwise the tools are listed over the async session and stored in the catalog.
+     */
+    public Mono<ToolCallback[]> getToolCallbacks(String serverUrl) {
+        return Mono.justOrEmpty(mcpToolCatalog.getCachedToolCallbacks(serverUrl))
+                .switchIfEmpty(Mono.defer(() -> loadToolCallbacks(serverUrl)))
+                .map(toolCallbacks -> Arrays.stream(toolCallbacks)
+                        .map(toolCallback -> new AsyncMcpSessionToolCallback(this, serverUrl,
+                                toolCallback.getTool(), toolCallback.getToolDefinition()))
+                        .toArray(ToolCallback[]::new));
+    }
+
+    @Override
+    public void destroy() {
+        clients.values().forEach(client -> client.closeGracefully().onErrorComplete().subscribe());
+        clients.clear();
+        sessions.clear();
+    }
+
+    private Mono<PooledMcpToolCallback[]> loadToolCallbacks(String serverUrl) {
+        return circuitBreakers.forMcpServer(serverUrl).protect(getSession(serverUrl)
+                        .flatMap(client -> client.listTools()
+                                .map(result -> {
+                                    List<McpSchema.Tool> tools = result.tools() != null ? result.tools() : List.of();
+                                    mcpToolCatalog.put(serverUrl, client.getClientInfo().name(), tools);
+                                    return tools;
+                                })), McpAsyncSessions::isTransportFailure)
+                .flatMap(tools -> Mono.justOrEmpty(mcpToolCatalog.getCachedToolCallbacks(serverUrl)));
+    }
+
+    private static boolean isTransportFailure(Throwable e) {
+        return !(e instanceof McpError);
+    }
+
+    private Mono<McpAsyncClient> connect(String serverUrl) {
+        logger.debug("Opening async MCP session for {}", serverUrl);
+        return Mono.defer(() -> {
+                    McpAsyncClient client = mcpClientFactory.createMcpAsyncClient(serverUrl,
+                            tools -> Mono.fromRunnable(() -> mcpToolCatalog.toolsChanged(serverUrl, tools)));
+                    clients.put(serverUrl, client);
+                    return client.initialize().thenReturn(client);
+                })
+                .doOnError(e -> {
+                    logger.warn("Failed to open async MCP session for {}: {}", serverUrl, e.getMessage());
+                    invalidate(serverUrl);
+                })
+                .cache();
+    }
+}
@@ -1,14 +1,20 @@
 package org.tanzu.mcpclient.mcp;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpAsyncClient;
 import io.modelcontextprotocol.client.McpClient;
 import io.modelcontextprotocol.client.McpSyncClient;
 import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 import javax.net.ssl.SSLContext;
 import java.net.http.HttpClient;
 import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Utility factory for creating MCP clients with consistent configuration.
@@ -35,6 +41,14 @@ public class McpClientFactory {
         return createMcpSyncClient(serverUrl, DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT);
     }
 
+    /**
+     * Creates a new MCP synchronous client with default timeouts that reports
+     * {@code notifications/tools/list_changed} from the server to the given consumer.
+     */
+    public McpSyncClient createMcpSyncClient(String serverUrl, Consumer<List<McpSchema.Tool>> toolsChangeConsumer) {
+        return createMcpSyncClient(serverUrl, DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT, toolsChangeConsumer);
+    }
+
     /**
      * Creates a new MCP synchronous client optimized for health checks (shorter timeouts).
      */
@@ -46,6 +60,11 @@ public class McpClientFactory {
      * Creates a new MCP synchronous client with custom timeout configuration.
      */
     public McpSyncClient createMcpSyncClient(String serverUrl, Duration connectTimeout, Duration requestTimeout) {
+        return createMcpSyncClient(serverUrl, connectTimeout, requestTimeout, tools -> {});
+    }
+
+    private McpSyncClient createMcpSyncClient(String serverUrl, Duration connectTimeout, Duration requestTimeout,
+                                              Consumer<List<McpSchema.Tool>> toolsChangeConsumer) {
         HttpClient.Builder clientBuilder = createHttpClientBuilder(connectTimeout);
 
         HttpClientSseClientTransport transport = HttpClientSseClientTransport.builder(serverUrl)
@@ -55,6 +74,25 @@ public class McpClientFactory {
 
         return McpClient.sync(transport)
                 .requestTimeout(requestTimeout)
+                .toolsChangeConsumer(toolsChangeConsumer)
+                .build();
+    }
+
+    /**
+     * Creates a new MCP asynchronous client with default timeouts. Unlike the synchronous
+     * client, a single async client can carry many concurrent requests without holding a
+     * thread per request.
+     */
+    public McpAsyncClient createMcpAsyncClient(String serverUrl,
+                                               Function<List<McpSchema.Tool>, Mono<Void>> toolsChangeConsumer) {
+        HttpClientSseClientTransport transport = HttpClientSseClientTransport.builder(serverUrl)
+                .clientBuilder(createHttpClientBuilder(DEFAULT_CONNECT_TIMEOUT))
+                .objectMapper(new ObjectMapper())
+                .build();
+
+        return McpClient.async(transport)
+                .requestTimeout(DEFAULT_REQUEST_TIMEOUT)
+                .toolsChangeConsumer(toolsChangeConsumer)
                 .build();
     }
 
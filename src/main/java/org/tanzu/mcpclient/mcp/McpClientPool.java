@@ -0,0 +1,309 @@
+package org.tanzu.mcpclient.mcp;
+
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.metrics.McpSessionPoolMetrics;
+import org.tanzu.mcpclient.resilience.CircuitBreaker;
+import org.tanzu.mcpclient.resilience.CircuitBreakers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Per-server pool of initialized MCP sessions shared by chat requests.
+ * Sessions are created lazily through {@link McpClientFactory}, handed out to one
+ * borrower at a time and returned when the borrower is done with them.
+ *
+ * <p>A session that has been idle longer than the validation interval is pinged
+ * before it is handed out; if the ping fails the session is closed and a new one
+ * is connected in its place. Sessions idle longer than the idle timeout are
+ * evicted in the background, and the number of sessions per server never exceeds
+ * the configured maximum.</p>
+ *
+ * <p>Each server has a {@link CircuitBreaker}. A session handed back with
+ * {@link #release(PooledMcpSession)} counts as a successful call, while failed connects
+ * and sessions discarded with {@link #invalidate(PooledMcpSession)} count as failures.
+ * While the breaker is open, borrowing fails immediately instead of waiting for the
+ * connect timeout.</p>
+ */
+@Component
+public class McpClientPool implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpClientPool.class);
+
+    private static final Duration EVICTION_INTERVAL = Duration.ofSeconds(30);
+
+    private final McpClientFactory mcpClientFactory;
+    private final CircuitBreakers circuitBreakers;
+    private final int maxSessionsPerServer;
+    private final Duration idleTimeout;
+    private final Duration validationInterval;
+    private final Duration borrowTimeout;
+    private final Map<String, ServerPool> pools = new ConcurrentHashMap<>();
+    private final List<BiConsumer<String, List<McpSchema.Tool>>> toolsChangeListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService evictor;
+
+    public McpClientPool(McpClientFactory mcpClientFactory, CircuitBreakers circuitBreakers,
+                         @Value("${mcp.client.pool.max-size:16}") int maxSessionsPerServer,
+                         @Value("${mcp.client.pool.idle-timeout:5m}") Duration idleTimeout,
+                         @Value("${mcp.client.pool.validation-interval:30s}") Duration validationInterval,
+                         @Value("${mcp.client.pool.borrow-timeout:10s}") Duration borrowTimeout) {
+        this.mcpClientFactory = mcpClientFactory;
+        this.circuitBreakers = circuitBreakers;
+        this.maxSessionsPerServer = maxSessionsPerServer;
+        this.idleTimeout = idleTimeout;
+        this.validationInterval = validationInterval;
+        this.borrowTimeout = borrowTimeout;
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mcp-session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evictor.scheduleWithFixedDelay(this::evictIdleSessions,
+                EVICTION_INTERVAL.toMillis(), EVICTION_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+
+        logger.info("MCP session pool configured: maxSize={}, idleTimeout={}, validationInterval={}, borrowTimeout={}",
+                maxSessionsPerServer, idleTimeout, validationInterval, borrowTimeout);
+    }
+
+    /**
+     * Borrows an initialized session for the given server, creating one if no idle
+     * session is available. The caller must hand the session back with
+     * {@link #release(PooledMcpSession)} or {@link #invalidate(PooledMcpSession)}.
+     *
+     * @throws IllegalStateException if the server's circuit breaker is open or no session
+     *                               becomes available within the borrow timeout
+     */
+    public PooledMcpSession borrow(String serverUrl) {
+        CircuitBreaker circuitBreaker = circuitBreakers.forMcpServer(serverUrl);
+        CircuitBreaker.Permission permission = circuitBreaker.tryAcquirePermission()
+                .orElseThrow(circuitBreaker::notPermitted);
+        ServerPool pool = pools.computeIfAbsent(serverUrl, ServerPool::new);
+
+        try {
+            if (!pool.permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                permission.release();
+                throw new IllegalStateException("Timed out waiting for an MCP session for " + serverUrl);
+            }
+        } catch (InterruptedException e) {
+            permission.release();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an MCP session for " + serverUrl, e);
+        }
+
+        try {
+            PooledMcpSession session;
+            while ((session = pool.idle.pollFirst()) != null) {
+                if (isUsable(session)) {
+                    pool.reused.incrementAndGet();
+                    session.permission = permission;
+                    return session;
+                }
+                pool.broken.incrementAndGet();
+                closeQuietly(session);
+            }
+            session = connect(pool);
+            session.permission = permission;
+            return session;
+        } catch (RuntimeException e) {
+            pool.permits.release();
+            permission.onFailure();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a healthy session to the pool so that later requests can reuse it.
+     */
+    public void release(PooledMcpSession session) {
+        session.permission.onSuccess();
+        ServerPool pool = pools.get(session.serverUrl());
+        if (pool == null) {
+            closeQuietly(session);
+            return;
+        }
+        session.touch();
+        pool.idle.offerFirst(session);
+        pool.permits.release();
+    }
+
+    /**
+     * Discards a session that is known to be broken. The next borrower reconnects.
+     */
+    public void invalidate(PooledMcpSession session) {
+        session.permission.onFailure();
+        ServerPool pool = pools.get(session.serverUrl());
+        closeQuietly(session);
+        if (pool != null) {
+            pool.broken.incrementAndGet();
+            pool.permits.release();
+        }
+    }
+
+    /**
+     * Discards a session whose call was abandoned because the caller was cancelled. The
+     * session may still receive the late response, so it is not reused, but the server is
+     * not counted as failing.
+     */
+    public void discard(PooledMcpSession session) {
+        session.permission.release();
+        ServerPool pool = pools.get(session.serverUrl());
+        closeQuietly(session);
+        if (pool != null) {
+            pool.permits.release();
+        }
+    }
+
+    /**
+     * Registers a listener that receives the server URL and new tool list whenever a
+     * pooled session receives {@code notifications/tools/list_changed}.
+     */
+    public void addToolsChangeListener(BiConsumer<String, List<McpSchema.Tool>> listener) {
+        toolsChangeListeners.add(listener);
+    }
+
+    /**
+     * Returns a snapshot of the pool state for every server that has been used so far.
+     */
+    public List<McpSessionPoolMetrics> getMetrics() {
+        return pools.values().stream()
+                .map(pool -> new McpSessionPoolMetrics(
+                        pool.serverUrl,
+                        maxSessionsPerServer - pool.permits.availablePermits(),
+                        pool.idle.size(),
+                        maxSessionsPerServer,
+                        pool.created.get(),
+                        pool.reused.get(),
+                        pool.evicted.get(),
+                        pool.broken.get()))
+                .sorted(Comparator.comparing(McpSessionPoolMetrics::serverUrl))
+                .toList();
+    }
+
+    @Override
+    public void destroy() {
+        evictor.shutdownNow();
+        pools.values().forEach(pool -> {
+            PooledMcpSession session;
+            while ((session = pool.idle.pollFirst()) != null) {
+                closeQuietly(session);
+            }
+        });
+    }
+
+    private PooledMcpSession connect(ServerPool pool) {
+        logger.debug("Opening new MCP session for {}", pool.serverUrl);
+        McpSyncClient client = mcpClientFactory.createMcpSyncClient(pool.serverUrl,
+                tools -> toolsChangeListeners.forEach(listener -> listener.accept(pool.serverUrl, tools)));
+        try {
+            client.initialize();
+        } catch (RuntimeException e) {
+            client.close();
+            throw e;
+        }
+        pool.created.incrementAndGet();
+        return new PooledMcpSession(pool.serverUrl, client);
+    }
+
+    /**
+     * Checks that a session is still initialized and, if it has been idle for a while,
+     * that the server still answers a ping.
+     */
+    private boolean isUsable(PooledMcpSession session) {
+        if (!session.client().isInitialized()) {
+            return false;
+        }
+        if (session.idleFor().compareTo(validationInterval) < 0) {
+            return true;
+        }
+        try {
+            session.client().ping();
+            return true;
+        } catch (Exception e) {
+            logger.debug("MCP session for {} failed validation: {}", session.serverUrl(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void evictIdleSessions() {
+        pools.values().forEach(pool -> pool.idle.forEach(session -> {
+            if (session.idleFor().compareTo(idleTimeout) > 0 && pool.idle.remove(session)) {
+                logger.debug("Evicting MCP session for {} after {} idle", pool.serverUrl, session.idleFor());
+                pool.evicted.incrementAndGet();
+                closeQuietly(session);
+            }
+        }));
+    }
+
+    private void closeQuietly(PooledMcpSession session) {
+        try {
+            session.client().closeGracefully();
+        } catch (Exception e) {
+            logger.debug("Error closing MCP session for {}: {}", session.serverUrl(), e.getMessage());
+        }
+    }
+
+    private class ServerPool {
+        private final String serverUrl;
+        private final Semaphore permits = new Semaphore(maxSessionsPerServer, true);
+        private final ConcurrentLinkedDeque<PooledMcpSession> idle = new ConcurrentLinkedDeque<>();
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong reused = new AtomicLong();
+        private final AtomicLong evicted = new AtomicLong();
+        private final AtomicLong broken = new AtomicLong();
+
+        private ServerPool(String serverUrl) {
+            this.serverUrl = serverUrl;
+        }
+    }
+
+    /**
+     * An initialized MCP session owned by the pool.
+     */
+    public static final class PooledMcpSession {
+        private final String serverUrl;
+        private final McpSyncClient client;
+        private volatile Instant lastUsed = Instant.now();
+        // Circuit breaker permission of the current borrower
+        private volatile CircuitBreaker.Permission permission;
+
+        private PooledMcpSession(String serverUrl, McpSyncClient client) {
+            this.serverUrl = serverUrl;
+            this.client = client;
+        }
+
+        public String serverUrl() {
+            return serverUrl;
+        }
+
+        public McpSyncClient client() {
+            return client;
+        }
+
+        private void touch() {
+            lastUsed = Instant.now();
+        }
+
+        private Duration idleFor() {
+            return Duration.between(lastUsed, Instant.now());
+        }
+    }
+}
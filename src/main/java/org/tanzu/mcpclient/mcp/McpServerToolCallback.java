@@ -0,0 +1,30 @@
+package org.tanzu.mcpclient.mcp;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.tool.ToolCallback;
+
+/**
+ * A {@link ToolCallback} that is served by a particular MCP server.
+ */
+public interface McpServerToolCallback extends ToolCallback {
+
+    String getServerUrl();
+
+    /**
+     * The tool as listed by the server, with its unprefixed name.
+     */
+    McpSchema.Tool getTool();
+
+    /**
+     * Whether a call failed because its thread was interrupted, i.e. the generation that
+     * needed the result was cancelled, rather than because of the server.
+     */
+    static boolean isCancellation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return Thread.currentThread().isInterrupted();
+    }
+}
@@ -0,0 +1,146 @@
+package org.tanzu.mcpclient.mcp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.metrics.ToolCallDeduplicationMetrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight for MCP tool calls: while a call with a given {@link ToolCallKey} is in
+ * flight, identical calls from other chat streams wait for its result instead of sending
+ * their own {@code tools/call}. Nothing is retained once the call completes; combine with
+ * {@link McpToolResultCache} to also reuse results afterwards.
+ *
+ * <p>Tools of servers listed in {@code mcp.client.tool-execution.sequential-servers} have
+ * side effects and are never collapsed.</p>
+ *
+ * <p>A call that is cancelled, e.g. because its turn timed out or its client went away,
+ * fails only for its own caller: waiting calls from other streams retry it instead. Waiting
+ * calls give up after {@code mcp.client.tool-execution.call-timeout}, like the calls they
+ * joined.</p>
+ */
+@Component
+public class McpToolCallDeduplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpToolCallDeduplicator.class);
+
+    private final boolean enabled;
+    private final Set<String> sequentialServers;
+    private final Duration callTimeout;
+    private final Map<ToolCallKey, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executedCalls = new AtomicLong();
+    private final AtomicLong collapsedCalls = new AtomicLong();
+
+    public McpToolCallDeduplicator(@Value("${mcp.client.tool-call-dedup.enabled:true}") boolean enabled,
+                                   @Value("${mcp.client.tool-execution.sequential-servers:}") Set<String> sequentialServers,
+                                   @Value("${mcp.client.tool-execution.call-timeout:60s}") Duration callTimeout) {
+        this.enabled = enabled;
+        this.sequentialServers = sequentialServers;
+        this.callTimeout = callTimeout;
+    }
+
+    /**
+     * Returns a deduplicating wrapper for MCP tools, and the given callback unchanged for
+     * other tools or when deduplication is disabled.
+     */
+    public ToolCallback wrap(ToolCallback toolCallback) {
+        if (enabled && toolCallback instanceof McpServerToolCallback mcpToolCallback
+                && !sequentialServers.contains(mcpToolCallback.getServerUrl())) {
+            return new SingleFlightToolCallback(mcpToolCallback);
+        }
+        return toolCallback;
+    }
+
+    public ToolCallDeduplicationMetrics getMetrics() {
+        long executed = executedCalls.get();
+        long collapsed = collapsedCalls.get();
+        return new ToolCallDeduplicationMetrics(
+                enabled,
+                inFlight.size(),
+                executed,
+                collapsed,
+                executed + collapsed > 0 ? (double) collapsed / (executed + collapsed) : 0.0
+        );
+    }
+
+    private final class SingleFlightToolCallback extends DelegatingMcpToolCallback {
+
+        SingleFlightToolCallback(McpServerToolCallback delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public String call(String toolInput) {
+            ToolCallKey key = ToolCallKey.of(delegate, toolInput);
+            long deadline = System.nanoTime() + callTimeout.toNanos();
+            while (true) {
+                CompletableFuture<String> call = new CompletableFuture<>();
+                CompletableFuture<String> leader = inFlight.putIfAbsent(key, call);
+                if (leader == null) {
+                    return lead(key, call, toolInput);
+                }
+                logger.debug("Joining in-flight call of {} on {}", key.toolName(), key.serverUrl());
+                try {
+                    String result = awaitLeader(leader, deadline);
+                    collapsedCalls.incrementAndGet();
+                    return result;
+                } catch (CancellationException e) {
+                    // The call we joined was cancelled by its own caller: run it again or join the next one
+                    logger.debug("In-flight call of {} on {} was cancelled, retrying", key.toolName(), key.serverUrl());
+                }
+            }
+        }
+
+        private String lead(ToolCallKey key, CompletableFuture<String> call, String toolInput) {
+            executedCalls.incrementAndGet();
+            try {
+                String result = delegate.call(toolInput);
+                call.complete(result);
+                return result;
+            } catch (RuntimeException e) {
+                if (McpServerToolCallback.isCancellation(e)) {
+                    // Remove first, so that retrying followers do not find the cancelled call again
+                    inFlight.remove(key, call);
+                    call.cancel(false);
+                } else {
+                    call.completeExceptionally(e);
+                }
+                throw e;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+
+        private String awaitLeader(CompletableFuture<String> leader, long deadline) {
+            try {
+                return leader.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                // Followers see the same failure as the call they joined
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new ToolExecutionException(getToolDefinition(), e.getCause());
+            } catch (TimeoutException e) {
+                throw new ToolExecutionException(getToolDefinition(),
+                        new TimeoutException("Tool call did not complete within " + callTimeout));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ToolExecutionException(getToolDefinition(), e);
+            }
+        }
+    }
+}
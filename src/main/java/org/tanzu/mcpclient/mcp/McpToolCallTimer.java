@@ -0,0 +1,50 @@
+package org.tanzu.mcpclient.mcp;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.metrics.ChatStageTimers;
+
+import java.util.Map;
+
+/**
+ * Records the latency of every MCP tool call that actually reaches a server in the
+ * {@code chat.tool.call} histogram, tagged by server display name and tool. Calls answered by the
+ * result cache or joined onto an identical call in flight are not recorded.
+ */
+@Component
+public class McpToolCallTimer {
+
+    private static final String UNNAMED_SERVER = "unnamed";
+
+    private final ChatStageTimers chatStageTimers;
+    private final Map<String, String> serverNamesByUrl;
+
+    public McpToolCallTimer(ChatStageTimers chatStageTimers, Map<String, String> serverNamesByUrl) {
+        this.chatStageTimers = chatStageTimers;
+        this.serverNamesByUrl = serverNamesByUrl;
+    }
+
+    /**
+     * Returns a timing wrapper for MCP tools, and the given callback unchanged otherwise.
+     */
+    public ToolCallback wrap(ToolCallback toolCallback) {
+        if (toolCallback instanceof McpServerToolCallback mcpToolCallback) {
+            return new TimedToolCallback(mcpToolCallback);
+        }
+        return toolCallback;
+    }
+
+    private final class TimedToolCallback extends DelegatingMcpToolCallback {
+
+        TimedToolCallback(McpServerToolCallback delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return chatStageTimers.toolCall(serverNamesByUrl.getOrDefault(delegate.getServerUrl(), UNNAMED_SERVER),
+                            delegate.getTool().name())
+                    .record(() -> delegate.call(toolInput));
+        }
+    }
+}
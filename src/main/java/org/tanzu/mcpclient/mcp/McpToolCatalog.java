@@ -0,0 +1,162 @@
+package org.tanzu.mcpclient.mcp;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.DefaultToolDefinition;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.mcp.McpClientPool.PooledMcpSession;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared cache of the tools offered by each MCP server.
+ * Holds the tool definitions with their input schemas already serialized, together with
+ * prebuilt {@link ToolCallback}s, so that chat requests can attach tools without a
+ * {@code tools/list} round-trip.
+ *
+ * <p>An entry is replaced when a pooled or async session receives
+ * {@code notifications/tools/list_changed} from its server, and reloaded on the next
+ * request once it is older than the configured TTL.</p>
+ */
+@Component
+public class McpToolCatalog implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpToolCatalog.class);
+
+    private final McpClientPool mcpClientPool;
+    private final Duration ttl;
+    private final Map<String, CatalogEntry> entries = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> loadLocks = new ConcurrentHashMap<>();
+
+    public McpToolCatalog(McpClientPool mcpClientPool,
+                          @Value("${mcp.client.tool-catalog.ttl:10m}") Duration ttl) {
+        this.mcpClientPool = mcpClientPool;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        mcpClientPool.addToolsChangeListener(this::toolsChanged);
+    }
+
+    /**
+     * Returns the tool callbacks for a server, loading them only if the cached entry
+     * is missing or older than the TTL.
+     */
+    public ToolCallback[] getToolCallbacks(String serverUrl) {
+        CatalogEntry entry = entries.get(serverUrl);
+        if (entry != null && !entry.isExpired(ttl)) {
+            return entry.toolCallbacks();
+        }
+
+        ReentrantLock lock = loadLocks.computeIfAbsent(serverUrl, url -> new ReentrantLock());
+        lock.lock();
+        try {
+            // Another request may have loaded the entry while we were waiting
+            entry = entries.get(serverUrl);
+            if (entry != null && !entry.isExpired(ttl)) {
+                return entry.toolCallbacks();
+            }
+            return load(serverUrl).toolCallbacks();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the cached tool callbacks for a server if they are present and not expired,
+     * without loading anything.
+     */
+    public Optional<PooledMcpToolCallback[]> getCachedToolCallbacks(String serverUrl) {
+        return Optional.ofNullable(entries.get(serverUrl))
+                .filter(entry -> !entry.isExpired(ttl))
+                .map(CatalogEntry::toolCallbacks);
+    }
+
+    /**
+     * Stores tools that were fetched elsewhere, e.g. by the startup health check.
+     *
+     * @param clientName the MCP client name used to prefix tool names
+     */
+    public void put(String serverUrl, String clientName, List<McpSchema.Tool> tools) {
+        entries.put(serverUrl, buildEntry(serverUrl, clientName, tools));
+        logger.debug("Cached {} tools for MCP server {}", tools.size(), serverUrl);
+    }
+
+    /**
+     * Returns the cached tool definitions for a server, or an empty list if none are cached.
+     */
+    public List<McpSchema.Tool> getTools(String serverUrl) {
+        CatalogEntry entry = entries.get(serverUrl);
+        return entry != null ? entry.tools() : List.of();
+    }
+
+    public void invalidate(String serverUrl) {
+        entries.remove(serverUrl);
+    }
+
+    private CatalogEntry load(String serverUrl) {
+        logger.debug("Loading tool catalog for MCP server {}", serverUrl);
+        PooledMcpSession session = mcpClientPool.borrow(serverUrl);
+        McpSchema.ListToolsResult result;
+        try {
+            result = session.client().listTools();
+        } catch (RuntimeException e) {
+            mcpClientPool.invalidate(session);
+            throw e;
+        }
+        String clientName = session.client().getClientInfo().name();
+        mcpClientPool.release(session);
+
+        List<McpSchema.Tool> tools = result != null && result.tools() != null ? result.tools() : List.of();
+        CatalogEntry entry = buildEntry(serverUrl, clientName, tools);
+        entries.put(serverUrl, entry);
+        return entry;
+    }
+
+    /**
+     * Replaces the cached tools of a server after it sent {@code notifications/tools/list_changed}.
+     */
+    public void toolsChanged(String serverUrl, List<McpSchema.Tool> tools) {
+        CatalogEntry current = entries.get(serverUrl);
+        if (current == null) {
+            // Nothing cached yet; the next request loads the full catalog
+            return;
+        }
+        logger.info("MCP server {} reported a tool list change, refreshing catalog ({} tools)",
+                serverUrl, tools.size());
+        put(serverUrl, current.clientName(), tools);
+    }
+
+    private CatalogEntry buildEntry(String serverUrl, String clientName, List<McpSchema.Tool> tools) {
+        PooledMcpToolCallback[] toolCallbacks = tools.stream()
+                .map(tool -> new PooledMcpToolCallback(mcpClientPool, serverUrl, tool,
+                        DefaultToolDefinition.builder()
+                                .name(McpToolUtils.prefixedToolName(clientName, tool.name()))
+                                .description(tool.description())
+                                .inputSchema(ModelOptionsUtils.toJsonString(tool.inputSchema()))
+                                .build()))
+                .toArray(PooledMcpToolCallback[]::new);
+        return new CatalogEntry(clientName, List.copyOf(tools), toolCallbacks, Instant.now());
+    }
+
+    private record CatalogEntry(String clientName, List<McpSchema.Tool> tools, PooledMcpToolCallback[] toolCallbacks,
+                                Instant loadedAt) {
+
+        boolean isExpired(Duration ttl) {
+            return loadedAt.plus(ttl).isBefore(Instant.now());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.tanzu.mcpclient.mcp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.metrics.ToolResultCacheMetrics;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache of MCP tool results for read-only tools, so that repeated identical calls skip the
+ * {@code tools/call} round-trip. Caching is opt-in per tool via
+ * {@code mcp.client.tool-cache.tools}, which lists tool names either as published by the
+ * server or with their client prefix. Entries are keyed by {@link ToolCallKey}, expire after
+ * the TTL and are evicted least-recently-used once {@code maxSize} is reached. Only
+ * successful results are cached.
+ */
+@Component
+public class McpToolResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpToolResultCache.class);
+
+    private final Set<String> cacheableTools;
+    private final Duration ttl;
+    private final int maxSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<ToolCallKey, CachedResult> results;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public McpToolResultCache(@Value("${mcp.client.tool-cache.tools:}") Set<String> cacheableTools,
+                              @Value("${mcp.client.tool-cache.ttl:60s}") Duration ttl,
+                              @Value("${mcp.client.tool-cache.max-size:1000}") int maxSize) {
+        this.cacheableTools = cacheableTools;
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        // Access order turns the map into an LRU list; the eldest entry is the least recently used
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ToolCallKey, CachedResult> eldest) {
+                if (size() > McpToolResultCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        if (!cacheableTools.isEmpty()) {
+            logger.info("MCP tool result cache configured: tools={}, ttl={}, maxSize={}", cacheableTools, ttl, maxSize);
+        }
+    }
+
+    /**
+     * Returns a caching wrapper for tools that are configured as cacheable, and the
+     * given callback unchanged otherwise.
+     */
+    public ToolCallback wrap(ToolCallback toolCallback) {
+        if (toolCallback instanceof McpServerToolCallback mcpToolCallback && isCacheable(mcpToolCallback)) {
+            return new CachingToolCallback(mcpToolCallback);
+        }
+        return toolCallback;
+    }
+
+    public ToolResultCacheMetrics getMetrics() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        int size;
+        lock.lock();
+        try {
+            size = results.size();
+        } finally {
+            lock.unlock();
+        }
+        return new ToolResultCacheMetrics(
+                cacheableTools.size(),
+                maxSize,
+                ttl.toSeconds(),
+                size,
+                hitCount,
+                missCount,
+                evictions.get(),
+                hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0.0
+        );
+    }
+
+    private boolean isCacheable(McpServerToolCallback toolCallback) {
+        return !cacheableTools.isEmpty()
+                && (cacheableTools.contains(toolCallback.getTool().name())
+                || cacheableTools.contains(toolCallback.getToolDefinition().name()));
+    }
+
+    private String get(ToolCallKey key) {
+        lock.lock();
+        try {
+            CachedResult cached = results.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.expiresAt() - System.nanoTime() <= 0) {
+                results.remove(key);
+                return null;
+            }
+            return cached.result();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(ToolCallKey key, String result) {
+        lock.lock();
+        try {
+            results.put(key, new CachedResult(result, System.nanoTime() + ttl.toNanos()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record CachedResult(String result, long expiresAt) {
+    }
+
+    private final class CachingToolCallback extends DelegatingMcpToolCallback {
+
+        CachingToolCallback(McpServerToolCallback delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public String call(String toolInput) {
+            ToolCallKey key = ToolCallKey.of(delegate, toolInput);
+            String cached = get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                logger.debug("Tool result cache hit for {} on {}", key.toolName(), key.serverUrl());
+                return cached;
+            }
+            misses.incrementAndGet();
+            String result = delegate.call(toolInput);
+            put(key, result);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.tanzu.mcpclient.mcp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.chat.ChatConfigurationEvent;
+import org.tanzu.mcpclient.metrics.ToolRoutingMetrics;
+import org.tanzu.mcpclient.model.EmbeddingVectors;
+import org.tanzu.mcpclient.model.ModelDiscoveryService;
+import org.tanzu.mcpclient.model.QueryEmbedding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Narrows the tools sent with a chat request to those relevant to the user message.
+ * Tool names and descriptions are embedded once, when the MCP servers have been discovered
+ * and again whenever a tool is first seen or its description changes. Per request only the
+ * {@code topK} most similar tools plus the configured always-include tools are passed to the
+ * model, in their original order. If anything goes wrong, all tools are passed.
+ */
+@Component
+public class McpToolRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpToolRouter.class);
+
+    // Rough size of a tool definition in prompt tokens; good enough to report the savings
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final EmbeddingModel embeddingModel;
+    private final ModelDiscoveryService modelDiscoveryService;
+    private final McpToolCatalog mcpToolCatalog;
+    private final List<String> mcpServiceURLs;
+    private final boolean enabled;
+    private final int topK;
+    private final Set<String> alwaysInclude;
+    private final Map<String, ToolEmbedding> toolEmbeddings = new ConcurrentHashMap<>();
+
+    private final AtomicLong routedRequests = new AtomicLong();
+    private final AtomicLong toolsOffered = new AtomicLong();
+    private final AtomicLong toolsSelected = new AtomicLong();
+    private final AtomicLong tokensSaved = new AtomicLong();
+
+    public McpToolRouter(EmbeddingModel embeddingModel, ModelDiscoveryService modelDiscoveryService,
+                         McpToolCatalog mcpToolCatalog, List<String> mcpServiceURLs,
+                         @Value("${mcp.client.tool-router.enabled:false}") boolean enabled,
+                         @Value("${mcp.client.tool-router.top-k:12}") int topK,
+                         @Value("${mcp.client.tool-router.always-include:}") Set<String> alwaysInclude) {
+        this.embeddingModel = embeddingModel;
+        this.modelDiscoveryService = modelDiscoveryService;
+        this.mcpToolCatalog = mcpToolCatalog;
+        this.mcpServiceURLs = mcpServiceURLs;
+        this.enabled = enabled;
+        this.topK = topK;
+        this.alwaysInclude = alwaysInclude;
+
+        if (enabled) {
+            logger.info("MCP tool router configured: topK={}, alwaysInclude={}", topK, alwaysInclude);
+        }
+    }
+
+    /**
+     * Embeds the tools of all healthy servers once their discovery has completed.
+     */
+    @EventListener
+    public void handleChatConfigurationEvent(ChatConfigurationEvent event) {
+        if (!isActive()) {
+            return;
+        }
+        List<ToolCallback> toolCallbacks = mcpServiceURLs.stream()
+                .flatMap(mcpServiceURL -> mcpToolCatalog.getCachedToolCallbacks(mcpServiceURL).stream())
+                .flatMap(Arrays::stream)
+                .map(ToolCallback.class::cast)
+                .toList();
+        try {
+            index(toolCallbacks);
+            logger.info("Indexed {} MCP tools for routing", toolEmbeddings.size());
+        } catch (RuntimeException e) {
+            logger.warn("Could not index MCP tools for routing, they will be indexed on first use: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the tools to offer the model for the given user message.
+     */
+    public ToolCallback[] route(QueryEmbedding query, ToolCallback[] toolCallbacks) {
+        if (!isActive() || toolCallbacks.length <= topK) {
+            return toolCallbacks;
+        }
+
+        double[] scores;
+        try {
+            index(Arrays.asList(toolCallbacks));
+            float[] queryEmbedding = query.get();
+            scores = Arrays.stream(toolCallbacks)
+                    .mapToDouble(toolCallback -> EmbeddingVectors.cosineSimilarity(queryEmbedding,
+                            toolEmbeddings.get(toolCallback.getToolDefinition().name()).embedding()))
+                    .toArray();
+        } catch (RuntimeException e) {
+            logger.warn("Tool routing failed, offering all {} tools: {}", toolCallbacks.length, e.getMessage());
+            return toolCallbacks;
+        }
+
+        boolean[] selected = new boolean[toolCallbacks.length];
+        IntStream.range(0, toolCallbacks.length)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> scores[i]).reversed())
+                .limit(topK)
+                .forEach(i -> selected[i] = true);
+
+        List<ToolCallback> routed = new ArrayList<>();
+        long savedTokens = 0;
+        for (int i = 0; i < toolCallbacks.length; i++) {
+            if (selected[i] || isAlwaysIncluded(toolCallbacks[i])) {
+                routed.add(toolCallbacks[i]);
+            } else {
+                savedTokens += estimateTokens(toolCallbacks[i].getToolDefinition());
+            }
+        }
+
+        routedRequests.incrementAndGet();
+        toolsOffered.addAndGet(toolCallbacks.length);
+        toolsSelected.addAndGet(routed.size());
+        tokensSaved.addAndGet(savedTokens);
+        logger.debug("Routed {} of {} tools, saving about {} prompt tokens",
+                routed.size(), toolCallbacks.length, savedTokens);
+
+        return routed.toArray(ToolCallback[]::new);
+    }
+
+    public ToolRoutingMetrics getMetrics() {
+        long requests = routedRequests.get();
+        long saved = tokensSaved.get();
+        return new ToolRoutingMetrics(
+                enabled,
+                topK,
+                toolEmbeddings.size(),
+                requests,
+                toolsOffered.get(),
+                toolsSelected.get(),
+                saved,
+                requests > 0 ? (double) saved / requests : 0.0
+        );
+    }
+
+    private boolean isActive() {
+        return enabled && modelDiscoveryService.isEmbeddingModelAvailable();
+    }
+
+    /**
+     * Embeds, in one batch, every tool that is new or whose description changed.
+     */
+    private void index(List<ToolCallback> toolCallbacks) {
+        List<ToolDefinition> missing = toolCallbacks.stream()
+                .map(ToolCallback::getToolDefinition)
+                .filter(definition -> {
+                    ToolEmbedding existing = toolEmbeddings.get(definition.name());
+                    return existing == null || !existing.text().equals(embeddingText(definition));
+                })
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        List<String> texts = missing.stream().map(McpToolRouter::embeddingText).toList();
+        List<float[]> embeddings = embeddingModel.embed(texts);
+        for (int i = 0; i < missing.size(); i++) {
+            toolEmbeddings.put(missing.get(i).name(),
+                    new ToolEmbedding(texts.get(i), EmbeddingVectors.normalize(embeddings.get(i))));
+        }
+    }
+
+    private boolean isAlwaysIncluded(ToolCallback toolCallback) {
+        if (alwaysInclude.contains(toolCallback.getToolDefinition().name())) {
+            return true;
+        }
+        return toolCallback instanceof McpServerToolCallback mcpToolCallback
+                && alwaysInclude.contains(mcpToolCallback.getTool().name());
+    }
+
+    private static String embeddingText(ToolDefinition definition) {
+        return definition.description() != null
+                ? definition.name() + ": " + definition.description()
+                : definition.name();
+    }
+
+    private static long estimateTokens(ToolDefinition definition) {
+        long chars = definition.name().length()
+                + (definition.description() != null ? definition.description().length() : 0)
+                + (definition.inputSchema() != null ? definition.inputSchema().length() : 0);
+        return chars / CHARS_PER_TOKEN;
+    }
+
+    private record ToolEmbedding(String text, float[] embedding) {
+    }
+}
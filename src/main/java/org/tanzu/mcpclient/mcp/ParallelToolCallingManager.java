@@ -0,0 +1,258 @@
+package org.tanzu.mcpclient.mcp;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.DefaultToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+import org.springframework.ai.tool.execution.ToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.observation.DefaultToolCallingObservationConvention;
+import org.springframework.ai.tool.observation.ToolCallingObservationContext;
+import org.springframework.ai.tool.observation.ToolCallingObservationDocumentation;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link ToolCallingManager} that runs the tool calls of one assistant turn concurrently
+ * on virtual threads instead of one after another, so that the tool latency of a turn is
+ * that of its slowest call rather than the sum of all calls.
+ *
+ * <p>Calls to the same MCP server are limited to {@code maxConcurrentCallsPerServer} at a
+ * time. Servers listed in {@code mcp.client.tool-execution.sequential-servers} (e.g. tools
+ * with side effects) get their calls run one at a time in the order the model issued them.
+ * Every call of a turn must complete within {@code callTimeout} of the turn being dispatched;
+ * a call that fails or times out is reported to the model as an error result, exactly like
+ * a failing call in the default manager.
+ * Results are always returned in the original order of the tool calls. If the generation
+ * is cancelled while the turn is waiting, the calls still running are aborted.</p>
+ */
+@Component
+public class ParallelToolCallingManager implements ToolCallingManager, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelToolCallingManager.class);
+
+    private static final String LOCAL_TOOLS = "local";
+
+    private final ToolCallingManager sequentialManager;
+    private final ObservationRegistry observationRegistry;
+    private final ToolExecutionExceptionProcessor exceptionProcessor = DefaultToolExecutionExceptionProcessor.builder().build();
+    private final boolean parallel;
+    private final int maxConcurrentCallsPerServer;
+    private final Duration callTimeout;
+    private final Set<String> sequentialServers;
+    private final Map<String, Semaphore> serverPermits = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ParallelToolCallingManager(ObservationRegistry observationRegistry,
+                                      @Value("${mcp.client.tool-execution.parallel:true}") boolean parallel,
+                                      @Value("${mcp.client.tool-execution.max-concurrent-calls-per-server:4}") int maxConcurrentCallsPerServer,
+                                      @Value("${mcp.client.tool-execution.call-timeout:60s}") Duration callTimeout,
+                                      @Value("${mcp.client.tool-execution.sequential-servers:}") Set<String> sequentialServers) {
+        this.sequentialManager = ToolCallingManager.builder().observationRegistry(observationRegistry).build();
+        this.observationRegistry = observationRegistry;
+        this.parallel = parallel;
+        this.maxConcurrentCallsPerServer = maxConcurrentCallsPerServer;
+        this.callTimeout = callTimeout;
+        this.sequentialServers = sequentialServers;
+
+        logger.info("Tool execution configured: parallel={}, maxConcurrentCallsPerServer={}, callTimeout={}, sequentialServers={}",
+                parallel, maxConcurrentCallsPerServer, callTimeout, sequentialServers);
+    }
+
+    @Override
+    public List<ToolDefinition> resolveToolDefinitions(ToolCallingChatOptions chatOptions) {
+        return sequentialManager.resolveToolDefinitions(chatOptions);
+    }
+
+    @Override
+    public ToolExecutionResult executeToolCalls(Prompt prompt, ChatResponse chatResponse) {
+        AssistantMessage assistantMessage = chatResponse.getResults().stream()
+                .map(Generation::getOutput)
+                .filter(output -> !CollectionUtils.isEmpty(output.getToolCalls()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No tool call requested by the chat model"));
+
+        List<AssistantMessage.ToolCall> toolCalls = assistantMessage.getToolCalls();
+        if (!parallel || toolCalls.size() < 2) {
+            return sequentialManager.executeToolCalls(prompt, chatResponse);
+        }
+
+        List<ToolCallback> toolCallbacks = prompt.getOptions() instanceof ToolCallingChatOptions options
+                ? options.getToolCallbacks() : List.of();
+        ToolContext toolContext = buildToolContext(prompt, assistantMessage);
+
+        List<ToolCallback> callbacks = new ArrayList<>(toolCalls.size());
+        boolean returnDirect = true;
+        for (AssistantMessage.ToolCall toolCall : toolCalls) {
+            ToolCallback callback = toolCallbacks.stream()
+                    .filter(candidate -> toolCall.name().equals(candidate.getToolDefinition().name()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No ToolCallback found for tool name: " + toolCall.name()));
+            callbacks.add(callback);
+            returnDirect &= callback.getToolMetadata().returnDirect();
+        }
+
+        logger.debug("Executing {} tool calls concurrently", toolCalls.size());
+        long deadline = System.nanoTime() + callTimeout.toNanos();
+        List<Future<String>> results = new ArrayList<>(toolCalls.size());
+        Map<String, Future<String>> lastCallBySequentialServer = new HashMap<>();
+        for (int i = 0; i < toolCalls.size(); i++) {
+            AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+            ToolCallback callback = callbacks.get(i);
+            String server = serverOf(callback);
+            Semaphore permits = serverPermits.computeIfAbsent(server,
+                    key -> new Semaphore(maxConcurrentCallsPerServer, true));
+
+            // Calls to a sequential server are chained so that each starts after the previous one finished
+            Future<String> previous = sequentialServers.contains(server) ? lastCallBySequentialServer.get(server) : null;
+            Future<String> result = executor.submit(() -> {
+                awaitQuietly(previous);
+                return callWithPermit(permits, callback, toolCall, toolContext);
+            });
+            if (sequentialServers.contains(server)) {
+                lastCallBySequentialServer.put(server, result);
+            }
+            results.add(result);
+        }
+
+        List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>(toolCalls.size());
+        try {
+            for (int i = 0; i < toolCalls.size(); i++) {
+                AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+                String result = awaitResult(results.get(i), callbacks.get(i), deadline);
+                toolResponses.add(new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(),
+                        result != null ? result : ""));
+            }
+        } catch (RuntimeException e) {
+            // The generation was cancelled, e.g. because the client went away: abort the calls still running
+            results.forEach(result -> result.cancel(true));
+            throw e;
+        }
+
+        List<Message> conversationHistory = new ArrayList<>(prompt.getInstructions());
+        conversationHistory.add(assistantMessage);
+        conversationHistory.add(new ToolResponseMessage(toolResponses, Map.of()));
+
+        return ToolExecutionResult.builder()
+                .conversationHistory(conversationHistory)
+                .returnDirect(returnDirect)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private String callWithPermit(Semaphore permits, ToolCallback callback, AssistantMessage.ToolCall toolCall,
+                                  ToolContext toolContext) throws InterruptedException {
+        permits.acquire();
+        try {
+            ToolCallingObservationContext observationContext = ToolCallingObservationContext.builder()
+                    .toolDefinition(callback.getToolDefinition())
+                    .toolMetadata(callback.getToolMetadata())
+                    .toolCallArguments(toolCall.arguments())
+                    .build();
+
+            return ToolCallingObservationDocumentation.TOOL_CALL
+                    .observation(null, new DefaultToolCallingObservationConvention(), () -> observationContext,
+                            observationRegistry)
+                    .observe(() -> {
+                        String result;
+                        try {
+                            result = callback.call(toolCall.arguments(), toolContext);
+                        } catch (ToolExecutionException e) {
+                            result = exceptionProcessor.process(e);
+                        }
+                        observationContext.setToolCallResult(result);
+                        return result;
+                    });
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Waits for a call until the shared deadline of the turn. Failures that escaped the
+     * exception processor and timeouts are turned into error results for the model.
+     */
+    private String awaitResult(Future<String> result, ToolCallback callback, long deadline) {
+        ToolDefinition toolDefinition = callback.getToolDefinition();
+        try {
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Interrupting the virtual thread aborts the blocking MCP request
+            result.cancel(true);
+            logger.warn("Tool call {} did not complete within {}", toolDefinition.name(), callTimeout);
+            return exceptionProcessor.process(new ToolExecutionException(toolDefinition,
+                    new TimeoutException("Tool call did not complete within " + callTimeout)));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof ToolExecutionException toolException
+                    ? toolException.getCause() : e.getCause();
+            return exceptionProcessor.process(new ToolExecutionException(toolDefinition, cause));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for tool " + toolDefinition.name(), e);
+        }
+    }
+
+    private static void awaitQuietly(Future<String> previous) throws InterruptedException {
+        if (previous == null) {
+            return;
+        }
+        try {
+            previous.get();
+        } catch (ExecutionException | CancellationException e) {
+            // The outcome of the previous call is reported separately
+        }
+    }
+
+    private String serverOf(ToolCallback callback) {
+        return callback instanceof McpServerToolCallback mcpCallback ? mcpCallback.getServerUrl() : LOCAL_TOOLS;
+    }
+
+    private static ToolContext buildToolContext(Prompt prompt, AssistantMessage assistantMessage) {
+        Map<String, Object> toolContextMap = Map.of();
+        if (prompt.getOptions() instanceof ToolCallingChatOptions options
+                && !CollectionUtils.isEmpty(options.getToolContext())) {
+            toolContextMap = new HashMap<>(options.getToolContext());
+
+            List<Message> history = new ArrayList<>(prompt.copy().getInstructions());
+            history.add(new AssistantMessage(assistantMessage.getText(), assistantMessage.getMetadata(),
+                    assistantMessage.getToolCalls()));
+            toolContextMap.put(ToolContext.TOOL_CALL_HISTORY, history);
+        }
+        return new ToolContext(toolContextMap);
+    }
+}
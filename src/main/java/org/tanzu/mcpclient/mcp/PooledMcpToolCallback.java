@@ -0,0 +1,94 @@
+package org.tanzu.mcpclient.mcp;
+
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+import org.tanzu.mcpclient.mcp.McpClientPool.PooledMcpSession;
+
+import java.util.Map;
+
+/**
+ * {@link ToolCallback} for a single MCP tool that is not bound to a particular client.
+ * The tool definition is built once when the catalog is loaded; each invocation borrows
+ * a session from {@link McpClientPool} for the duration of the {@code tools/call}.
+ */
+public class PooledMcpToolCallback implements McpServerToolCallback {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledMcpToolCallback.class);
+
+    private final McpClientPool mcpClientPool;
+    private final String serverUrl;
+    private final McpSchema.Tool tool;
+    private final ToolDefinition toolDefinition;
+
+    public PooledMcpToolCallback(McpClientPool mcpClientPool, String serverUrl, McpSchema.Tool tool,
+                                 ToolDefinition toolDefinition) {
+        this.mcpClientPool = mcpClientPool;
+        this.serverUrl = serverUrl;
+        this.tool = tool;
+        this.toolDefinition = toolDefinition;
+    }
+
+    @Override
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    @Override
+    public McpSchema.Tool getTool() {
+        return tool;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return toolDefinition;
+    }
+
+    @Override
+    public String call(String toolInput) {
+        Map<String, Object> arguments = ModelOptionsUtils.jsonToMap(toolInput);
+
+        McpSchema.CallToolResult response;
+        PooledMcpSession session;
+        try {
+            session = mcpClientPool.borrow(serverUrl);
+        } catch (Exception e) {
+            throw new ToolExecutionException(toolDefinition, e);
+        }
+        try {
+            response = session.client().callTool(new McpSchema.CallToolRequest(tool.name(), arguments));
+            mcpClientPool.release(session);
+        } catch (McpError e) {
+            // The server answered with an error, so the session itself is still usable
+            mcpClientPool.release(session);
+            throw new ToolExecutionException(toolDefinition, e);
+        } catch (Exception e) {
+            if (McpServerToolCallback.isCancellation(e)) {
+                logger.debug("Call of tool {} on {} cancelled", tool.name(), serverUrl);
+                mcpClientPool.discard(session);
+            } else {
+                logger.error("Exception while calling tool {} on {}", tool.name(), serverUrl, e);
+                mcpClientPool.invalidate(session);
+            }
+            throw new ToolExecutionException(toolDefinition, e);
+        }
+
+        if (response.isError() != null && response.isError()) {
+            logger.error("Error calling tool {}: {}", tool.name(), response.content());
+            throw new ToolExecutionException(toolDefinition,
+                    new IllegalStateException("Error calling tool: " + response.content()));
+        }
+        return ModelOptionsUtils.toJsonString(response.content());
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return call(toolInput);
+    }
+}
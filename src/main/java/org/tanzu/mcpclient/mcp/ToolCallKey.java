@@ -0,0 +1,32 @@
+package org.tanzu.mcpclient.mcp;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Identity of a tool invocation: the server, the unprefixed tool name and the arguments
+ * in canonical JSON form (object keys sorted at every level, no insignificant whitespace),
+ * so that calls which differ only in key order or formatting are considered equal.
+ */
+public record ToolCallKey(String serverUrl, String toolName, String arguments) {
+
+    private static final ObjectMapper canonicalMapper = new ObjectMapper()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    public static ToolCallKey of(McpServerToolCallback toolCallback, String toolInput) {
+        return new ToolCallKey(toolCallback.getServerUrl(), toolCallback.getTool().name(), canonicalize(toolInput));
+    }
+
+    static String canonicalize(String json) {
+        if (json == null || json.isBlank()) {
+            return "{}";
+        }
+        try {
+            return canonicalMapper.writeValueAsString(canonicalMapper.readValue(json, Object.class));
+        } catch (JsonProcessingException e) {
+            // Not valid JSON; the tool will reject it anyway, so keep the raw input as the key
+            return json;
+        }
+    }
+}
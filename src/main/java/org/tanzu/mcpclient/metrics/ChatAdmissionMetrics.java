@@ -0,0 +1,15 @@
+package org.tanzu.mcpclient.metrics;
+
+public record ChatAdmissionMetrics(
+        int maxConcurrentStreams,
+        int activeStreams,
+        int queuedStreams,
+        long admittedTotal,
+        long queuedTotal,
+        long rejectedTotal,
+        int maxConcurrentStreamsPerUser,
+        int activeUsers,
+        int queuedUsers,
+        int longestUserQueue
+) {
+}
@@ -0,0 +1,10 @@
+package org.tanzu.mcpclient.metrics;
+
+public record ChatCancellationMetrics(
+        long cancelAfterDisconnectMillis,
+        long cancelledGenerations,
+        long tokensBeforeCancel,
+        long estimatedTokensAvoided,
+        double averageTokensPerAnswer
+) {
+}
@@ -0,0 +1,12 @@
+package org.tanzu.mcpclient.metrics;
+
+public record ChatHedgingMetrics(
+        boolean enabled,
+        long hedgeDelayMillis,
+        long streams,
+        long hedges,
+        long hedgeWins,
+        long budgetRejections,
+        double hedgeRate
+) {
+}
@@ -0,0 +1,13 @@
+package org.tanzu.mcpclient.metrics;
+
+public record ChatResumeMetrics(
+        int bufferEvents,
+        long retentionMillis,
+        int runningStreams,
+        int retainedStreams,
+        long streamsTotal,
+        long resumedTotal,
+        long replayedEventsTotal,
+        long unavailableTotal
+) {
+}
@@ -0,0 +1,132 @@
+package org.tanzu.mcpclient.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.model.ModelDiscoveryService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms for the stages of a chat request, published to the Micrometer
+ * registry and scraped from {@code /actuator/prometheus}. Model stages are tagged with
+ * the model that served them, MCP stages with the display name of the server, never its
+ * URL, which may carry credentials.
+ *
+ * <ul>
+ *   <li>{@code chat.mcp.init}: resolving the tools of one MCP server</li>
+ *   <li>{@code chat.rag.embedding}: embedding a search query</li>
+ *   <li>{@code chat.rag.search}: a document similarity search, including its query embedding</li>
+ *   <li>{@code chat.memory.retrieval}: the chat memory advisor loading the conversation</li>
+ *   <li>{@code chat.stream.first-token}: from the start of the model request to the first chunk</li>
+ *   <li>{@code chat.stream.inter-token}: between two consecutive chunks</li>
+ *   <li>{@code chat.tool.call}: one MCP tool call</li>
+ *   <li>{@code chat.stream.duration}: the whole response stream as seen by the client</li>
+ * </ul>
+ */
+@Component
+public class ChatStageTimers {
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final ModelDiscoveryService modelDiscoveryService;
+
+    public ChatStageTimers(MeterRegistry meterRegistry, ModelDiscoveryService modelDiscoveryService) {
+        this.meterRegistry = meterRegistry;
+        this.modelDiscoveryService = modelDiscoveryService;
+    }
+
+    public Timer mcpInit(String serverName) {
+        return timer("chat.mcp.init", "Time to resolve the tools of an MCP server",
+                "server", serverName);
+    }
+
+    public Timer queryEmbedding() {
+        return timer("chat.rag.embedding", "Time to embed a search query",
+                "model", tagValue(modelDiscoveryService.getEmbeddingModelName()));
+    }
+
+    public Timer similaritySearch() {
+        return timer("chat.rag.search", "Time of a document similarity search including the query embedding",
+                "model", tagValue(modelDiscoveryService.getEmbeddingModelName()));
+    }
+
+    public Timer memoryRetrieval() {
+        return timer("chat.memory.retrieval", "Time for the chat memory advisor to load the conversation",
+                "model", chatModel());
+    }
+
+    public Timer toolCall(String serverName, String toolName) {
+        return timer("chat.tool.call", "Time of an MCP tool call",
+                "server", serverName, "tool", toolName);
+    }
+
+    public Timer streamDuration(String transport, SignalType signal) {
+        return timer("chat.stream.duration", "Duration of a chat response stream as seen by the client",
+                "model", chatModel(), "transport", transport, "outcome", outcome(signal));
+    }
+
+    /**
+     * Records time-to-first-token and inter-token latency of a model response stream.
+     * The clock starts when the stream is subscribed.
+     */
+    public <T> Flux<T> timeTokens(Flux<T> tokens) {
+        return Flux.defer(() -> {
+            Timer firstToken = timer("chat.stream.first-token", "Time from the start of the model request to its first chunk",
+                    "model", chatModel());
+            Timer interToken = timer("chat.stream.inter-token", "Time between two consecutive chunks of a model response",
+                    "model", chatModel());
+            long started = System.nanoTime();
+            AtomicLong previous = new AtomicLong();
+            return tokens.doOnNext(token -> {
+                long now = System.nanoTime();
+                long last = previous.getAndSet(now);
+                if (last == 0) {
+                    firstToken.record(now - started, TimeUnit.NANOSECONDS);
+                } else {
+                    interToken.record(now - last, TimeUnit.NANOSECONDS);
+                }
+            });
+        });
+    }
+
+    /**
+     * Records the time from subscription until the given stream terminates.
+     */
+    public <T> Mono<T> time(Mono<T> mono, Timer timer) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return mono.doFinally(signal -> sample.stop(timer));
+        });
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private String chatModel() {
+        return tagValue(modelDiscoveryService.getChatModelName());
+    }
+
+    private static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "complete";
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancel";
+            default -> signal.name().toLowerCase();
+        };
+    }
+
+    private static String tagValue(String value) {
+        return value != null && !value.isEmpty() ? value : NONE;
+    }
+}
@@ -0,0 +1,12 @@
+package org.tanzu.mcpclient.metrics;
+
+public record ChatStreamMetrics(
+        long coalesceWindowMillis,
+        int maxFrameBytes,
+        long responses,
+        long chunks,
+        long frames,
+        double framesPerResponse,
+        double bytesPerFrame
+) {
+}
@@ -0,0 +1,11 @@
+package org.tanzu.mcpclient.metrics;
+
+public record ChatWebSocketMetrics(
+        int connections,
+        int openStreams,
+        long streamsTotal,
+        long cancelledStreams,
+        long creditStalls,
+        long overflows
+) {
+}
@@ -0,0 +1,14 @@
+package org.tanzu.mcpclient.metrics;
+
+import java.time.Instant;
+
+public record CircuitBreakerMetrics(
+        String name,
+        String state,
+        double failureRate,
+        int recordedCalls,
+        long notPermittedCalls,
+        long timesOpened,
+        Instant lastStateChange
+) {
+}
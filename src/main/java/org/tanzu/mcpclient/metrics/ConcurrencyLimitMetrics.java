@@ -0,0 +1,14 @@
+package org.tanzu.mcpclient.metrics;
+
+public record ConcurrencyLimitMetrics(
+        String name,
+        int limit,
+        int inFlight,
+        int queued,
+        long averageLatencyMillis,
+        long admittedTotal,
+        long queuedTotal,
+        long shedTotal,
+        long rateLimitedTotal
+) {
+}
@@ -0,0 +1,13 @@
+package org.tanzu.mcpclient.metrics;
+
+public record McpSessionPoolMetrics(
+        String serverUrl,
+        int activeSessions,
+        int idleSessions,
+        int maxSessions,
+        long sessionsCreated,
+        long sessionsReused,
+        long sessionsEvicted,
+        long sessionsBroken
+) {
+}
@@ -4,10 +4,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.tanzu.mcpclient.chat.ChatChunkCoalescer;
 import org.tanzu.mcpclient.chat.ChatConfigurationEvent;
+import org.tanzu.mcpclient.chat.ChatResponseCache;
+import org.tanzu.mcpclient.chat.ChatStreamAdmission;
+import org.tanzu.mcpclient.chat.ChatWebSocketHandler;
+import org.tanzu.mcpclient.chat.ResumableChatStreams;
 import org.tanzu.mcpclient.document.DocumentConfigurationEvent;
+import org.tanzu.mcpclient.mcp.McpClientPool;
+import org.tanzu.mcpclient.mcp.McpToolCallDeduplicator;
+import org.tanzu.mcpclient.mcp.McpToolResultCache;
+import org.tanzu.mcpclient.mcp.McpToolRouter;
+import org.tanzu.mcpclient.model.ChatModelHedging;
 import org.tanzu.mcpclient.prompt.McpPrompt;
 import org.tanzu.mcpclient.prompt.PromptConfigurationEvent;
+import org.tanzu.mcpclient.resilience.AdaptiveConcurrencyLimits;
+import org.tanzu.mcpclient.resilience.CircuitBreakers;
 
 import java.util.List;
 import java.util.Map;
@@ -32,7 +44,37 @@ public class MetricsService {
     private boolean promptsAvailable = false;
     private Map<String, List<McpPrompt>> promptsByServer = Map.of();
 
-    public MetricsService() {
+    private final McpClientPool mcpClientPool;
+    private final ChatStreamAdmission chatStreamAdmission;
+    private final ChatChunkCoalescer chatChunkCoalescer;
+    private final McpToolResultCache mcpToolResultCache;
+    private final McpToolCallDeduplicator mcpToolCallDeduplicator;
+    private final ChatResponseCache chatResponseCache;
+    private final McpToolRouter mcpToolRouter;
+    private final ChatModelHedging chatModelHedging;
+    private final CircuitBreakers circuitBreakers;
+    private final AdaptiveConcurrencyLimits concurrencyLimits;
+    private final ResumableChatStreams resumableChatStreams;
+    private final ChatWebSocketHandler chatWebSocketHandler;
+
+    public MetricsService(McpClientPool mcpClientPool, ChatStreamAdmission chatStreamAdmission,
+                          ChatChunkCoalescer chatChunkCoalescer, McpToolResultCache mcpToolResultCache,
+                          McpToolCallDeduplicator mcpToolCallDeduplicator, ChatResponseCache chatResponseCache,
+                          McpToolRouter mcpToolRouter, ChatModelHedging chatModelHedging,
+                          CircuitBreakers circuitBreakers, AdaptiveConcurrencyLimits concurrencyLimits,
+                          ResumableChatStreams resumableChatStreams, ChatWebSocketHandler chatWebSocketHandler) {
+        this.mcpClientPool = mcpClientPool;
+        this.chatStreamAdmission = chatStreamAdmission;
+        this.chatChunkCoalescer = chatChunkCoalescer;
+        this.mcpToolResultCache = mcpToolResultCache;
+        this.mcpToolCallDeduplicator = mcpToolCallDeduplicator;
+        this.chatResponseCache = chatResponseCache;
+        this.mcpToolRouter = mcpToolRouter;
+        this.chatModelHedging = chatModelHedging;
+        this.circuitBreakers = circuitBreakers;
+        this.concurrencyLimits = concurrencyLimits;
+        this.resumableChatStreams = resumableChatStreams;
+        this.chatWebSocketHandler = chatWebSocketHandler;
     }
 
     @EventListener
@@ -75,7 +117,20 @@ public class MetricsService {
                 this.embeddingModel,
                 this.vectorStoreName,
                 this.mcpServersWithHealth.toArray(new McpServer[0]),
-                promptMetrics
+                promptMetrics,
+                mcpClientPool.getMetrics(),
+                chatStreamAdmission.getMetrics(),
+                chatChunkCoalescer.getMetrics(),
+                mcpToolResultCache.getMetrics(),
+                mcpToolCallDeduplicator.getMetrics(),
+                chatResponseCache.getMetrics(),
+                mcpToolRouter.getMetrics(),
+                chatModelHedging.getMetrics(),
+                circuitBreakers.getMetrics(),
+                concurrencyLimits.getMetrics(),
+                resumableChatStreams.getMetrics(),
+                resumableChatStreams.getCancellationMetrics(),
+                chatWebSocketHandler.getMetrics()
         );
     }
 
@@ -85,7 +140,20 @@ public class MetricsService {
             String embeddingModel,
             String vectorStoreName,
             McpServer[] mcpServers,
-            PromptMetrics prompts
+            PromptMetrics prompts,
+            List<McpSessionPoolMetrics> mcpSessionPools,
+            ChatAdmissionMetrics chatAdmission,
+            ChatStreamMetrics chatStreams,
+            ToolResultCacheMetrics toolResultCache,
+            ToolCallDeduplicationMetrics toolCallDeduplication,
+            ResponseCacheMetrics responseCache,
+            ToolRoutingMetrics toolRouting,
+            ChatHedgingMetrics chatHedging,
+            List<CircuitBreakerMetrics> circuitBreakers,
+            List<ConcurrencyLimitMetrics> modelConcurrencyLimits,
+            ChatResumeMetrics chatResume,
+            ChatCancellationMetrics chatCancellation,
+            ChatWebSocketMetrics chatWebSocket
     ) {}
 
     public record PromptMetrics(
@@ -0,0 +1,12 @@
+package org.tanzu.mcpclient.metrics;
+
+public record ResponseCacheMetrics(
+        boolean enabled,
+        double similarityThreshold,
+        int entries,
+        long lookups,
+        long hits,
+        long stored,
+        double hitRate
+) {
+}
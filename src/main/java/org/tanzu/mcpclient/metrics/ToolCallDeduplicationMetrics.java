@@ -0,0 +1,10 @@
+package org.tanzu.mcpclient.metrics;
+
+public record ToolCallDeduplicationMetrics(
+        boolean enabled,
+        int inFlightCalls,
+        long executedCalls,
+        long collapsedCalls,
+        double collapseRatio
+) {
+}
@@ -0,0 +1,13 @@
+package org.tanzu.mcpclient.metrics;
+
+public record ToolResultCacheMetrics(
+        int cacheableTools,
+        int maxSize,
+        long ttlSeconds,
+        int size,
+        long hits,
+        long misses,
+        long evictions,
+        double hitRatio
+) {
+}
@@ -0,0 +1,13 @@
+package org.tanzu.mcpclient.metrics;
+
+public record ToolRoutingMetrics(
+        boolean enabled,
+        int topK,
+        int indexedTools,
+        long routedRequests,
+        long toolsOffered,
+        long toolsSelected,
+        long estimatedTokensSaved,
+        double estimatedTokensSavedPerRequest
+) {
+}
@@ -0,0 +1,150 @@
+package org.tanzu.mcpclient.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.metrics.ChatHedgingMetrics;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Policy for hedged chat streams. When several chat models are load balanced and a stream
+ * has produced no response after the {@code percentile} of recent times to first response
+ * (but at least {@code minDelay}), the prompt is also sent to a second model and the first
+ * model to respond wins. No delay is derived before {@value #MIN_SAMPLES} responses have
+ * been observed, so no stream is hedged until then. Times are measured from the start of the
+ * client's stream; a primary cancelled before it responded contributes its elapsed time as
+ * a lower bound.
+ *
+ * <p>Hedges are paid for from a budget: every stream adds {@code maxHedgeRatio} to it and
+ * every hedge takes one, so that in the long run at most that share of streams is sent
+ * twice. Up to {@value #MAX_BUDGET} unused hedges are saved for bursts of slow responses.</p>
+ */
+@Component
+public class ChatModelHedging {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatModelHedging.class);
+
+    private static final int SAMPLE_WINDOW = 512;
+    private static final int MIN_SAMPLES = 20;
+    // The delay is recomputed after this many new samples rather than on every stream
+    private static final int RECOMPUTE_INTERVAL = 32;
+    private static final double MAX_BUDGET = 10.0;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double maxHedgeRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] samples = new long[SAMPLE_WINDOW];
+    private int sampleCount;
+    private int nextSample;
+    private int samplesSinceRecompute;
+    private long hedgeDelayNanos = -1;
+    private double budget;
+
+    private final AtomicLong streams = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong budgetRejections = new AtomicLong();
+
+    public ChatModelHedging(@Value("${chat.model.hedging.enabled:false}") boolean enabled,
+                            @Value("${chat.model.hedging.percentile:95}") double percentile,
+                            @Value("${chat.model.hedging.min-delay:250ms}") Duration minDelay,
+                            @Value("${chat.model.hedging.max-hedge-ratio:0.05}") double maxHedgeRatio) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxHedgeRatio = maxHedgeRatio;
+
+        if (enabled) {
+            logger.info("Chat stream hedging enabled: p{} of time to first response, at least {}, at most {}% of streams",
+                    percentile, minDelay, maxHedgeRatio * 100);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Counts a new stream, adds its share to the hedge budget and returns how long to wait
+     * for its first response before hedging, or {@code null} if it should not be hedged.
+     */
+    Duration startStream() {
+        streams.incrementAndGet();
+        lock.lock();
+        try {
+            budget = Math.min(MAX_BUDGET, budget + maxHedgeRatio);
+            return hedgeDelayNanos < 0 ? null : Duration.ofNanos(hedgeDelayNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes one hedge from the budget, returning {@code false} if it is used up.
+     */
+    boolean tryHedge() {
+        lock.lock();
+        try {
+            if (budget < 1.0) {
+                budgetRejections.incrementAndGet();
+                return false;
+            }
+            budget -= 1.0;
+        } finally {
+            lock.unlock();
+        }
+        hedges.incrementAndGet();
+        return true;
+    }
+
+    void recordHedgeWin() {
+        hedgeWins.incrementAndGet();
+    }
+
+    void recordFirstResponse(long nanos) {
+        lock.lock();
+        try {
+            samples[nextSample] = nanos;
+            nextSample = (nextSample + 1) % SAMPLE_WINDOW;
+            sampleCount = Math.min(SAMPLE_WINDOW, sampleCount + 1);
+            if (sampleCount >= MIN_SAMPLES && (hedgeDelayNanos < 0 || ++samplesSinceRecompute >= RECOMPUTE_INTERVAL)) {
+                long[] sorted = Arrays.copyOf(samples, sampleCount);
+                Arrays.sort(sorted);
+                int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+                hedgeDelayNanos = Math.max(minDelayNanos, sorted[Math.max(0, Math.min(sorted.length, rank) - 1)]);
+                samplesSinceRecompute = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public ChatHedgingMetrics getMetrics() {
+        long delayNanos;
+        lock.lock();
+        try {
+            delayNanos = hedgeDelayNanos;
+        } finally {
+            lock.unlock();
+        }
+        long streamCount = streams.get();
+        long hedgeCount = hedges.get();
+        return new ChatHedgingMetrics(
+                enabled,
+                delayNanos < 0 ? -1 : Duration.ofNanos(delayNanos).toMillis(),
+                streamCount,
+                hedgeCount,
+                hedgeWins.get(),
+                budgetRejections.get(),
+                streamCount > 0 ? (double) hedgeCount / streamCount : 0.0
+        );
+    }
+}
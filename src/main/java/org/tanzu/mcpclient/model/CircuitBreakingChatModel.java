@@ -0,0 +1,60 @@
+package org.tanzu.mcpclient.model;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.tanzu.mcpclient.resilience.CircuitBreaker;
+import reactor.core.publisher.Flux;
+
+/**
+ * {@link ChatModel} that runs every call and stream of another model under a
+ * {@link CircuitBreaker}. While the breaker is open, requests fail immediately instead of
+ * waiting for an endpoint that has been failing.
+ */
+class CircuitBreakingChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final CircuitBreaker circuitBreaker;
+
+    CircuitBreakingChatModel(ChatModel delegate, CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        return CircuitBreakingChatModel.call(delegate, circuitBreaker, prompt);
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return circuitBreaker.protect(delegate.stream(prompt));
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+
+    static ChatResponse call(ChatModel chatModel, CircuitBreaker circuitBreaker, Prompt prompt) {
+        CircuitBreaker.Permission permission = circuitBreaker.tryAcquirePermission()
+                .orElseThrow(circuitBreaker::notPermitted);
+        try {
+            ChatResponse response = chatModel.call(prompt);
+            permission.onSuccess();
+            return response;
+        } catch (RuntimeException e) {
+            permission.onFailure();
+            throw e;
+        }
+    }
+
+    /**
+     * The model name from the default options, used to key the model's circuit breaker.
+     */
+    static String modelName(ChatModel chatModel) {
+        ChatOptions options = chatModel.getDefaultOptions();
+        return options != null && options.getModel() != null ? options.getModel() : chatModel.getClass().getSimpleName();
+    }
+}
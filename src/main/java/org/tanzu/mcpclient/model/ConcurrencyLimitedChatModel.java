@@ -0,0 +1,130 @@
+package org.tanzu.mcpclient.model;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.util.CollectionUtils;
+import org.tanzu.mcpclient.resilience.AdaptiveConcurrencyLimit;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link ChatModel} that admits calls and streams of another model through an
+ * {@link AdaptiveConcurrencyLimit}. Streams feed their time to first response into the
+ * limit, since their total duration depends on the length of the answer. Calls are retried
+ * with a permit per attempt, see {@link ConcurrencyLimitedRetry}.
+ *
+ * <p>Only model round-trips are limited. Tools requested by the model are executed here
+ * rather than inside the delegate, without a permit, so that slow tools neither hold model
+ * slots nor read as model latency to the limit.</p>
+ */
+class ConcurrencyLimitedChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final ConcurrencyLimitedRetry retry;
+    private final ToolCallingManager toolCallingManager;
+
+    ConcurrencyLimitedChatModel(ChatModel delegate, AdaptiveConcurrencyLimit concurrencyLimit,
+                                ConcurrencyLimitedRetry retry, ToolCallingManager toolCallingManager) {
+        this.delegate = delegate;
+        this.concurrencyLimit = concurrencyLimit;
+        this.retry = retry;
+        this.toolCallingManager = toolCallingManager;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        if (!executesTools(prompt)) {
+            return limitedCall(prompt);
+        }
+        Prompt modelPrompt = withoutToolExecution(prompt);
+        ChatResponse response = limitedCall(modelPrompt);
+        while (response.hasToolCalls()) {
+            ToolExecutionResult result = toolCallingManager.executeToolCalls(modelPrompt, response);
+            if (result.returnDirect()) {
+                return toolResultResponse(response, result);
+            }
+            modelPrompt = new Prompt(result.conversationHistory(), modelPrompt.getOptions());
+            response = limitedCall(modelPrompt);
+        }
+        return response;
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return executesTools(prompt) ? streamWithTools(withoutToolExecution(prompt)) : limitedStream(prompt);
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+
+    /**
+     * Streams one model turn and, if the model asks for tools, runs them once the turn has
+     * ended and its permit is released, then streams the next turn.
+     */
+    private Flux<ChatResponse> streamWithTools(Prompt prompt) {
+        return limitedStream(prompt).concatMap(response -> {
+            if (!response.hasToolCalls()) {
+                return Flux.just(response);
+            }
+            // Tool callbacks block, as in the delegate's own tool execution
+            return Flux.defer(() -> {
+                ToolExecutionResult result = toolCallingManager.executeToolCalls(prompt, response);
+                if (result.returnDirect()) {
+                    return Flux.just(toolResultResponse(response, result));
+                }
+                return streamWithTools(new Prompt(result.conversationHistory(), prompt.getOptions()));
+            }).subscribeOn(Schedulers.boundedElastic());
+        });
+    }
+
+    private ChatResponse limitedCall(Prompt prompt) {
+        return retry.execute(concurrencyLimit, () -> delegate.call(prompt));
+    }
+
+    private Flux<ChatResponse> limitedStream(Prompt prompt) {
+        return concurrencyLimit.acquire().flatMapMany(permit -> {
+            long started = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            return delegate.stream(prompt)
+                    .doOnNext(response -> {
+                        if (first.compareAndSet(true, false)) {
+                            permit.recordLatency(System.nanoTime() - started);
+                        }
+                    })
+                    .doOnError(permit::recordError)
+                    .doFinally(signal -> permit.release());
+        });
+    }
+
+    /**
+     * Whether the delegate would execute the prompt's tools itself.
+     */
+    private static boolean executesTools(Prompt prompt) {
+        return prompt.getOptions() instanceof ToolCallingChatOptions options
+                && ToolCallingChatOptions.isInternalToolExecutionEnabled(options)
+                && (!CollectionUtils.isEmpty(options.getToolCallbacks()) || !CollectionUtils.isEmpty(options.getToolNames()));
+    }
+
+    private static Prompt withoutToolExecution(Prompt prompt) {
+        ToolCallingChatOptions options = (ToolCallingChatOptions) prompt.getOptions().copy();
+        options.setInternalToolExecutionEnabled(false);
+        return new Prompt(prompt.getInstructions(), options);
+    }
+
+    private static ChatResponse toolResultResponse(ChatResponse response, ToolExecutionResult result) {
+        return ChatResponse.builder()
+                .from(response)
+                .generations(ToolExecutionResult.buildGenerations(result))
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package org.tanzu.mcpclient.model;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.lang.NonNull;
+import org.tanzu.mcpclient.resilience.AdaptiveConcurrencyLimit;
+
+/**
+ * {@link EmbeddingModel} that admits the requests of another model through an
+ * {@link AdaptiveConcurrencyLimit}. The default {@code embed} variants end up in
+ * {@link #call(EmbeddingRequest)}, so every request to the endpoint is limited once. Each
+ * retry attempt takes its own permit, see {@link ConcurrencyLimitedRetry}.
+ */
+class ConcurrencyLimitedEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final ConcurrencyLimitedRetry retry;
+
+    ConcurrencyLimitedEmbeddingModel(EmbeddingModel delegate, AdaptiveConcurrencyLimit concurrencyLimit,
+                                     ConcurrencyLimitedRetry retry) {
+        this.delegate = delegate;
+        this.concurrencyLimit = concurrencyLimit;
+        this.retry = retry;
+    }
+
+    @Override
+    @NonNull
+    public EmbeddingResponse call(@NonNull EmbeddingRequest request) {
+        return retry.execute(concurrencyLimit, () -> delegate.call(request));
+    }
+
+    @Override
+    @NonNull
+    public float[] embed(@NonNull Document document) {
+        return retry.execute(concurrencyLimit, () -> delegate.embed(document));
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+}
@@ -0,0 +1,67 @@
+package org.tanzu.mcpclient.model;
+
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.support.RetryTemplate;
+import org.tanzu.mcpclient.resilience.AdaptiveConcurrencyLimit;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking model requests through the {@link RetryTemplate} with one
+ * {@link AdaptiveConcurrencyLimit} permit per attempt.
+ *
+ * <p>Spring AI models retry inside {@code call}, which would hold the permit through the
+ * backoff and only report the last attempt to the limit. Retries nested in a limited
+ * attempt are therefore stopped after their first failure: the failure is recorded on that
+ * attempt's permit, which is released before the outer retry backs off and acquires a new
+ * one. This relies on the models sharing the template, which holds for
+ * {@code RetryUtils.DEFAULT_RETRY_TEMPLATE}.</p>
+ */
+final class ConcurrencyLimitedRetry {
+
+    private static final String LIMITED_ATTEMPT = ConcurrencyLimitedRetry.class.getName() + ".limited";
+
+    private final RetryTemplate retryTemplate;
+
+    ConcurrencyLimitedRetry(RetryTemplate retryTemplate) {
+        this.retryTemplate = retryTemplate;
+        retryTemplate.registerListener(new NestedRetryStop());
+    }
+
+    <T> T execute(AdaptiveConcurrencyLimit concurrencyLimit, Supplier<T> request) {
+        return retryTemplate.execute(context -> {
+            context.setAttribute(LIMITED_ATTEMPT, true);
+            return attempt(concurrencyLimit, request);
+        });
+    }
+
+    private static <T> T attempt(AdaptiveConcurrencyLimit concurrencyLimit, Supplier<T> request) {
+        // Reactor refuses to block its non-blocking workers, so callers must not run there
+        AdaptiveConcurrencyLimit.Permit permit = concurrencyLimit.acquire().block();
+        long started = System.nanoTime();
+        try {
+            T result = request.get();
+            permit.recordLatency(System.nanoTime() - started);
+            return result;
+        } catch (RuntimeException e) {
+            permit.recordError(e);
+            throw e;
+        } finally {
+            permit.release();
+        }
+    }
+
+    private static final class NestedRetryStop implements RetryListener {
+
+        @Override
+        public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                     Throwable throwable) {
+            RetryContext parent = context.getParent();
+            if (parent != null && parent.hasAttribute(LIMITED_ATTEMPT)) {
+                context.setExhaustedOnly();
+            }
+        }
+    }
+}
@@ -4,8 +4,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.resilience.CircuitBreakers;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,13 +23,27 @@ public class GenaiLocatorModelProvider implements ModelProvider {
     private static final int PRIORITY = 0; // Highest priority
     
     private final MultiGenaiLocatorAggregator aggregator;
+    private final boolean loadBalancingEnabled;
+    private final int maxConcurrentRequestsPerModel;
+    private final ChatModelHedging hedging;
+    private final CircuitBreakers circuitBreakers;
+    private LoadBalancingChatModel loadBalancingChatModel;
     
     /**
      * Constructor with MultiGenaiLocatorAggregator injection.
      * The aggregator handles multiple GenaiLocator instances and provides unified access.
+     * When they offer more than one chat model, requests are balanced across all of them
+     * and, if enabled, slow streams are hedged on a second model.
      */
-    public GenaiLocatorModelProvider(MultiGenaiLocatorAggregator aggregator) {
+    public GenaiLocatorModelProvider(MultiGenaiLocatorAggregator aggregator, ChatModelHedging hedging,
+                                     CircuitBreakers circuitBreakers,
+                                     @Value("${chat.model.load-balancing.enabled:true}") boolean loadBalancingEnabled,
+                                     @Value("${chat.model.load-balancing.max-concurrent-requests-per-model:32}") int maxConcurrentRequestsPerModel) {
         this.aggregator = aggregator;
+        this.loadBalancingEnabled = loadBalancingEnabled;
+        this.maxConcurrentRequestsPerModel = maxConcurrentRequestsPerModel;
+        this.hedging = hedging;
+        this.circuitBreakers = circuitBreakers;
         
         if (aggregator.hasAnyLocators()) {
             logger.debug("MultiGenaiLocatorAggregator available with {} locators - will provide managed models", 
@@ -44,6 +61,12 @@ public class GenaiLocatorModelProvider implements ModelProvider {
         }
         
         try {
+            if (loadBalancingEnabled) {
+                Optional<ChatModel> balanced = getLoadBalancingChatModel();
+                if (balanced.isPresent()) {
+                    return balanced;
+                }
+            }
             Optional<ChatModel> chatModel = aggregator.getFirstAvailableChatModel();
             if (chatModel.isPresent()) {
                 logger.debug("Successfully obtained ChatModel from aggregated GenaiLocators: {}", 
@@ -59,6 +82,20 @@ public class GenaiLocatorModelProvider implements ModelProvider {
         }
     }
     
+    /**
+     * The balancer keeps per-model request counts, so all callers must share one instance.
+     */
+    private synchronized Optional<ChatModel> getLoadBalancingChatModel() {
+        if (loadBalancingChatModel == null) {
+            List<ChatModel> chatModels = aggregator.aggregateChatModels();
+            if (chatModels.size() < 2) {
+                return Optional.empty();
+            }
+            loadBalancingChatModel = new LoadBalancingChatModel(chatModels, maxConcurrentRequestsPerModel, hedging, circuitBreakers);
+        }
+        return Optional.of(loadBalancingChatModel);
+    }
+    
     @Override
     public Optional<EmbeddingModel> getEmbeddingModel() {
         if (!aggregator.hasAnyLocators()) {
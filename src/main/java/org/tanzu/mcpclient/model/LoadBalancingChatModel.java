@@ -0,0 +1,229 @@
+package org.tanzu.mcpclient.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.util.CollectionUtils;
+import org.tanzu.mcpclient.resilience.CircuitBreaker;
+import org.tanzu.mcpclient.resilience.CircuitBreakers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * {@link ChatModel} that spreads requests over the chat models of several bound services.
+ * Each request goes to the model with the fewest outstanding requests; ties go to the model
+ * with the lower moving average of its time to first response. A model never serves more
+ * than {@code maxConcurrentRequestsPerModel} requests at a time, and a request that finds
+ * every model at its limit fails instead of overloading one of them. Each model has its own
+ * {@link CircuitBreaker}, and models whose breaker is open are not selected.
+ *
+ * <p>If {@link ChatModelHedging} is enabled, a stream that is slow to respond is also sent
+ * to a second model; the stream of the first model to respond is used and the other one is
+ * cancelled. Prompts whose tools the model executes itself are never hedged: their first
+ * response only arrives after the tools of the turn have run, and a hedge would run them a
+ * second time. For the same reason their latency is not sampled, neither for hedging nor
+ * for choosing between models. Prompts whose tools are executed by the caller, such as
+ * those from {@link ConcurrencyLimitedChatModel}, are single model round-trips.</p>
+ *
+ * <p>The default options carry no model-specific settings such as the model name, so each
+ * model completes the request with its own defaults.</p>
+ */
+class LoadBalancingChatModel implements ChatModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadBalancingChatModel.class);
+
+    // Weight of the latest observation in the moving average of the time to first response
+    private static final double LATENCY_SMOOTHING = 0.3;
+
+    private final List<Backend> backends;
+    private final int maxConcurrentRequestsPerModel;
+    private final ChatModelHedging hedging;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    LoadBalancingChatModel(List<ChatModel> chatModels, int maxConcurrentRequestsPerModel, ChatModelHedging hedging,
+                           CircuitBreakers circuitBreakers) {
+        // Several services may offer the same model, so breakers are keyed by position as well
+        this.backends = IntStream.range(0, chatModels.size())
+                .mapToObj(i -> new Backend(chatModels.get(i), circuitBreakers.forChatModel(
+                        CircuitBreakingChatModel.modelName(chatModels.get(i)) + " #" + (i + 1))))
+                .toList();
+        this.maxConcurrentRequestsPerModel = maxConcurrentRequestsPerModel;
+        this.hedging = hedging;
+
+        logger.info("Load balancing over {} chat models with at most {} concurrent requests each",
+                backends.size(), maxConcurrentRequestsPerModel);
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        Backend backend = acquire();
+        long started = System.nanoTime();
+        try {
+            ChatResponse response = CircuitBreakingChatModel.call(backend.chatModel, backend.circuitBreaker, prompt);
+            if (!executesTools(prompt)) {
+                backend.recordLatency(System.nanoTime() - started);
+            }
+            return response;
+        } finally {
+            release(backend);
+        }
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            boolean sample = !executesTools(prompt);
+            Duration hedgeDelay = hedging.isEnabled() && sample ? hedging.startStream() : null;
+            long started = System.nanoTime();
+            Backend primary = acquire();
+            Flux<ChatResponse> primaryStream = stream(primary, prompt, started, sample, false);
+            if (hedgeDelay == null) {
+                return primaryStream;
+            }
+            // Whichever stream signals first wins and the other one is cancelled. Before the
+            // delay has passed, cancelling the hedge means it is never sent.
+            return Flux.firstWithSignal(primaryStream,
+                    Mono.delay(hedgeDelay).flatMapMany(tick -> hedge(primary, prompt, started)));
+        });
+    }
+
+    private Flux<ChatResponse> hedge(Backend primary, Prompt prompt, long started) {
+        Backend backend = tryAcquire(primary);
+        if (backend == null) {
+            return Flux.never();
+        }
+        if (!hedging.tryHedge()) {
+            release(backend);
+            return Flux.never();
+        }
+        logger.debug("Hedging chat stream after no response within the hedge delay");
+        AtomicBoolean responded = new AtomicBoolean();
+        // A hedge that fails before responding leaves the race to the primary stream
+        return stream(backend, prompt, started, true, true)
+                .doOnNext(response -> responded.set(true))
+                .onErrorResume(e -> responded.get() ? Flux.error(e) : Flux.never());
+    }
+
+    /**
+     * Streams from one model. Latency is only sampled if {@code sample} is set. Hedging samples
+     * are measured from {@code streamStarted}, when the client's stream began, so that a
+     * winning hedge reports the latency the client saw.
+     */
+    private Flux<ChatResponse> stream(Backend backend, Prompt prompt, long streamStarted, boolean sample, boolean hedge) {
+        long started = System.nanoTime();
+        AtomicBoolean first = new AtomicBoolean(true);
+        return backend.circuitBreaker.protect(backend.chatModel.stream(prompt))
+                .doOnNext(response -> {
+                    if (sample && first.compareAndSet(true, false)) {
+                        backend.recordLatency(System.nanoTime() - started);
+                        if (hedging.isEnabled()) {
+                            hedging.recordFirstResponse(System.nanoTime() - streamStarted);
+                            if (hedge) {
+                                hedging.recordHedgeWin();
+                            }
+                        }
+                    }
+                })
+                .doFinally(signal -> {
+                    // A primary cancelled before responding, usually because its hedge won, took at
+                    // least this long; dropping the sample would bias the percentile downwards
+                    if (signal == SignalType.CANCEL && sample && !hedge && hedging.isEnabled() && first.compareAndSet(true, false)) {
+                        hedging.recordFirstResponse(System.nanoTime() - streamStarted);
+                    }
+                    release(backend);
+                });
+    }
+
+    /**
+     * Whether the model runs the prompt's tools within the request.
+     */
+    private static boolean executesTools(Prompt prompt) {
+        return prompt.getOptions() instanceof ToolCallingChatOptions options
+                && ToolCallingChatOptions.isInternalToolExecutionEnabled(options)
+                && (!CollectionUtils.isEmpty(options.getToolCallbacks()) || !CollectionUtils.isEmpty(options.getToolNames()));
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return ToolCallingChatOptions.builder().build();
+    }
+
+    private Backend acquire() {
+        Backend backend = tryAcquire(null);
+        if (backend == null) {
+            throw new IllegalStateException("All " + backends.size() + " chat models are unavailable or serving their maximum of "
+                    + maxConcurrentRequestsPerModel + " requests");
+        }
+        return backend;
+    }
+
+    /**
+     * Reserves the least loaded model other than {@code excluded}, or returns {@code null}
+     * if all of them are at their limit or have an open circuit breaker.
+     */
+    private Backend tryAcquire(Backend excluded) {
+        lock.lock();
+        try {
+            Backend selected = null;
+            for (Backend backend : backends) {
+                if (backend == excluded || backend.outstanding >= maxConcurrentRequestsPerModel
+                        || !backend.circuitBreaker.isCallPermitted()) {
+                    continue;
+                }
+                if (selected == null || backend.outstanding < selected.outstanding
+                        || (backend.outstanding == selected.outstanding && backend.latencyNanos < selected.latencyNanos)) {
+                    selected = backend;
+                }
+            }
+            if (selected != null) {
+                selected.outstanding++;
+            }
+            return selected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Backend backend) {
+        lock.lock();
+        try {
+            backend.outstanding--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private final class Backend {
+
+        private final ChatModel chatModel;
+        private final CircuitBreaker circuitBreaker;
+        // Guarded by the lock of the enclosing model
+        private int outstanding;
+        private double latencyNanos;
+
+        Backend(ChatModel chatModel, CircuitBreaker circuitBreaker) {
+            this.chatModel = chatModel;
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        void recordLatency(long nanos) {
+            lock.lock();
+            try {
+                latencyNanos = latencyNanos == 0 ? nanos : latencyNanos + LATENCY_SMOOTHING * (nanos - latencyNanos);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -5,10 +5,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.model.tool.ToolCallingManager;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.retry.support.RetryTemplate;
+import org.tanzu.mcpclient.resilience.AdaptiveConcurrencyLimits;
+import org.tanzu.mcpclient.resilience.CircuitBreakers;
 
 /**
  * Uses CompositeModelProvider to orchestrate multiple model sources with priority-based selection.
@@ -21,9 +25,21 @@ public class ModelConfiguration {
     private static final Logger logger = LoggerFactory.getLogger(ModelConfiguration.class);
 
     private final CompositeModelProvider compositeModelProvider;
+    private final CircuitBreakers circuitBreakers;
+    private final AdaptiveConcurrencyLimits concurrencyLimits;
+    private final ModelDiscoveryService modelDiscoveryService;
+    private final ToolCallingManager toolCallingManager;
+    private final ConcurrencyLimitedRetry concurrencyLimitedRetry;
 
-    public ModelConfiguration(CompositeModelProvider compositeModelProvider) {
+    public ModelConfiguration(CompositeModelProvider compositeModelProvider, CircuitBreakers circuitBreakers,
+                              AdaptiveConcurrencyLimits concurrencyLimits, ModelDiscoveryService modelDiscoveryService,
+                              ToolCallingManager toolCallingManager, RetryTemplate retryTemplate) {
         this.compositeModelProvider = compositeModelProvider;
+        this.circuitBreakers = circuitBreakers;
+        this.concurrencyLimits = concurrencyLimits;
+        this.modelDiscoveryService = modelDiscoveryService;
+        this.toolCallingManager = toolCallingManager;
+        this.concurrencyLimitedRetry = concurrencyLimits.isEnabled() ? new ConcurrencyLimitedRetry(retryTemplate) : null;
 
         logger.info("ModelConfiguration initialized with CompositeModelProvider");
         logger.info("Available model providers: {}", compositeModelProvider.getProviderInfo());
@@ -31,6 +47,10 @@ public class ModelConfiguration {
 
     /**
      * Creates ChatModel bean using CompositeModelProvider for provider abstraction.
+     * The model runs under a circuit breaker, a load-balanced model has one per backend, and
+     * requests are admitted through an adaptive concurrency limit. Requests shed by the
+     * limit never reach the breaker, so they do not count as endpoint failures. With the
+     * limit enabled, tools are executed by the limited model between model round-trips.
      */
     @Bean
     @ConditionalOnMissingBean
@@ -38,6 +58,15 @@ public class ModelConfiguration {
         try {
             ChatModel chatModel = compositeModelProvider.getChatModel();
             logger.info("ChatModel successfully provided by CompositeModelProvider");
+            if (!(chatModel instanceof LoadBalancingChatModel)) {
+                chatModel = new CircuitBreakingChatModel(chatModel,
+                        circuitBreakers.forChatModel(CircuitBreakingChatModel.modelName(chatModel)));
+            }
+            if (concurrencyLimits.isEnabled()) {
+                chatModel = new ConcurrencyLimitedChatModel(chatModel,
+                        concurrencyLimits.forChatModel(nameOrDefault(modelDiscoveryService.getChatModelName())),
+                        concurrencyLimitedRetry, toolCallingManager);
+            }
             return chatModel;
         } catch (IllegalStateException e) {
             logger.error("Failed to obtain ChatModel from any provider: {}", e.getMessage());
@@ -47,6 +76,7 @@ public class ModelConfiguration {
 
     /**
      * Creates EmbeddingModel bean using CompositeModelProvider for provider abstraction.
+     * Requests are admitted through an adaptive concurrency limit.
      */
     @Bean
     @ConditionalOnMissingBean
@@ -54,6 +84,11 @@ public class ModelConfiguration {
         try {
             EmbeddingModel embeddingModel = compositeModelProvider.getEmbeddingModel();
             logger.info("EmbeddingModel successfully provided by CompositeModelProvider");
+            if (concurrencyLimits.isEnabled()) {
+                embeddingModel = new ConcurrencyLimitedEmbeddingModel(embeddingModel,
+                        concurrencyLimits.forEmbeddingModel(nameOrDefault(modelDiscoveryService.getEmbeddingModelName())),
+                        concurrencyLimitedRetry);
+            }
             return embeddingModel;
         } catch (IllegalStateException e) {
             logger.error("Failed to obtain EmbeddingModel from any provider: {}", e.getMessage());
@@ -70,4 +105,8 @@ public class ModelConfiguration {
         logger.debug("Creating ChatClient.Builder with ChatModel: {}", chatModel.getClass().getSimpleName());
         return ChatClient.builder(chatModel);
     }
-}
\ No newline at end of file
+
+    private static String nameOrDefault(String modelName) {
+        return modelName != null && !modelName.isEmpty() ? modelName : "default";
+    }
+}
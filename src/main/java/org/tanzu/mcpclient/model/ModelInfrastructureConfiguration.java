@@ -1,13 +1,11 @@
 package org.tanzu.mcpclient.model;
 
-import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.memory.InMemoryChatMemoryRepository;
 import org.springframework.ai.chat.memory.MessageWindowChatMemory;
-import org.springframework.ai.model.tool.ToolCallingManager;
 import org.springframework.ai.openai.api.OpenAiApi;
 import org.springframework.ai.retry.RetryUtils;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -96,18 +94,6 @@ public class ModelInfrastructureConfiguration {
         return RetryUtils.DEFAULT_RETRY_TEMPLATE;
     }
 
-    @Bean
-    @ConditionalOnMissingBean
-    public ObservationRegistry observationRegistry() {
-        return ObservationRegistry.NOOP;
-    }
-
-    @Bean
-    @ConditionalOnMissingBean
-    public ToolCallingManager toolCallingManager() {
-        return ToolCallingManager.builder().build();
-    }
-
     @Bean
     @ConditionalOnMissingBean
     ChatMemoryRepository chatMemoryRepository() {
@@ -138,6 +138,6 @@ public class PropertyBasedModelProvider implements ModelProvider {
                 .model(model)
                 .build();
         
-        return new OpenAiEmbeddingModel(embeddingOpenAiApi, MetadataMode.EMBED, options, retryTemplate);
+        return new OpenAiEmbeddingModel(embeddingOpenAiApi, MetadataMode.EMBED, options, retryTemplate, observationRegistry);
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package org.tanzu.mcpclient.model;
+
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The normalized embedding of one user message. It is computed on first use and then
+ * shared by everything that compares against it while the request is handled, so that the
+ * message is embedded at most once per request. A failed embedding is not retried.
+ */
+public final class QueryEmbedding {
+
+    private final EmbeddingModel embeddingModel;
+    private final String text;
+    // A lock rather than synchronized, so that waiting virtual threads are not pinned
+    private final ReentrantLock lock = new ReentrantLock();
+    private float[] embedding;
+    private RuntimeException failure;
+
+    public QueryEmbedding(EmbeddingModel embeddingModel, String text) {
+        this.embeddingModel = embeddingModel;
+        this.text = text;
+    }
+
+    public String text() {
+        return text;
+    }
+
+    /**
+     * Returns the normalized embedding, calling the embedding model on first use.
+     */
+    public float[] get() {
+        lock.lock();
+        try {
+            if (embedding == null && failure == null) {
+                try {
+                    embedding = EmbeddingVectors.normalize(embeddingModel.embed(text));
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return embedding;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -113,7 +113,7 @@ public class PromptResolutionService {
     /**
      * Finds the server URL corresponding to a server ID.
      */
-    private String findServerUrl(String serverId) {
+    String findServerUrl(String serverId) {
         return mcpServiceURLs.stream()
                 .filter(url -> generateServerId(url).equals(serverId))
                 .findFirst()
@@ -123,7 +123,7 @@ public class PromptResolutionService {
     /**
      * Generates a server ID from URL (same logic as PromptDiscoveryService).
      */
-    private String generateServerId(String mcpUrl) {
+    static String generateServerId(String mcpUrl) {
         try {
             var uri = java.net.URI.create(mcpUrl);
             String host = uri.getHost();
@@ -0,0 +1,275 @@
+package org.tanzu.mcpclient.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.tanzu.mcpclient.metrics.ConcurrencyLimitMetrics;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for one upstream model endpoint that adapts to how the endpoint copes
+ * with load (AIMD). A call that succeeds while the limit is in use raises the limit by
+ * {@code 1/limit}, so by about one per round of calls. A call whose latency exceeds
+ * {@code latencyTolerance} times the long-term average lowers it by {@code backoffRatio},
+ * and a call rejected with HTTP 429 or 503 halves it.
+ *
+ * <p>Requests beyond the limit wait in a queue of at most {@code maxQueued} entries for up
+ * to {@code queueTimeout}; requests that find the queue full or time out are shed with an
+ * {@link IllegalStateException}. Waiting is non-blocking, so the limit can be applied to
+ * reactive streams.</p>
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimit.class);
+
+    // Weight of a new sample in the long-term average latency
+    private static final double LATENCY_SMOOTHING = 0.05;
+    private static final double RATE_LIMITED_BACKOFF_RATIO = 0.5;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueued;
+    private final Duration queueTimeout;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Marks a waiter that left the queue without a permit
+    private final Permit abandoned = new Permit();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private double averageLatencyNanos;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong shed = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+
+    AdaptiveConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit, int maxQueued,
+                             Duration queueTimeout, double latencyTolerance, double backoffRatio) {
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueued = maxQueued;
+        this.queueTimeout = queueTimeout;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * Emits a permit once the request is within the limit, or fails if it is shed. The
+     * permit must be released when the request ends.
+     */
+    public Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = null;
+            boolean granted = false;
+            lock.lock();
+            try {
+                if (inFlight < (int) limit) {
+                    inFlight++;
+                    admitted.incrementAndGet();
+                    granted = true;
+                } else if (waiters.size() < maxQueued) {
+                    waiter = new Waiter(sink);
+                    waiters.addLast(waiter);
+                    queued.incrementAndGet();
+                }
+            } finally {
+                lock.unlock();
+            }
+            // Signals are emitted outside the lock since they start the request downstream
+            if (granted) {
+                Permit permit = new Permit();
+                sink.onCancel(permit::release);
+                sink.success(permit);
+                return;
+            }
+            if (waiter == null) {
+                shed.incrementAndGet();
+                sink.error(shedException());
+                return;
+            }
+            Waiter queuedWaiter = waiter;
+            sink.onCancel(() -> {
+                if (!abandon(queuedWaiter)) {
+                    // Granted, but cancelled before the permit reached the request: nobody else releases it
+                    Permit permit = queuedWaiter.grant.get();
+                    if (permit != abandoned) {
+                        permit.release();
+                    }
+                }
+            });
+            Schedulers.parallel().schedule(() -> {
+                if (abandon(queuedWaiter)) {
+                    shed.incrementAndGet();
+                    sink.error(shedException());
+                }
+            }, queueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        });
+    }
+
+    public ConcurrencyLimitMetrics getMetrics() {
+        lock.lock();
+        try {
+            return new ConcurrencyLimitMetrics(
+                    name,
+                    (int) limit,
+                    inFlight,
+                    waiters.size(),
+                    Duration.ofNanos((long) averageLatencyNanos).toMillis(),
+                    admitted.get(),
+                    queued.get(),
+                    shed.get(),
+                    rateLimited.get()
+            );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the endpoint rejected a request because of its rate limit or because it is
+     * overloaded.
+     */
+    static boolean isRateLimited(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException e && isOverloadStatus(e.getStatusCode().value())) {
+                return true;
+            }
+            if (cause instanceof RestClientResponseException e && isOverloadStatus(e.getStatusCode().value())) {
+                return true;
+            }
+            // Spring AI's response error handler reports the status code at the start of the message
+            String message = cause.getMessage();
+            if (message != null && (message.startsWith("429 ") || message.startsWith("503 "))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOverloadStatus(int statusCode) {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    private IllegalStateException shedException() {
+        return new IllegalStateException("Too many concurrent requests to " + name + ", please retry later");
+    }
+
+    /**
+     * Removes a waiter that has not been granted a permit yet.
+     */
+    private boolean abandon(Waiter waiter) {
+        if (!waiter.grant.compareAndSet(null, abandoned)) {
+            return false;
+        }
+        lock.lock();
+        try {
+            waiters.remove(waiter);
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    private void release(long latencyNanos, boolean wasRateLimited) {
+        List<Waiter> granted = new ArrayList<>();
+        lock.lock();
+        try {
+            boolean limitInUse = inFlight >= (int) limit;
+            inFlight--;
+            if (wasRateLimited) {
+                rateLimited.incrementAndGet();
+                setLimit(limit * RATE_LIMITED_BACKOFF_RATIO, "rate limited");
+            } else if (latencyNanos > 0) {
+                if (averageLatencyNanos > 0 && latencyNanos > averageLatencyNanos * latencyTolerance) {
+                    setLimit(limit * backoffRatio, "latency spike");
+                } else if (limitInUse) {
+                    setLimit(limit + 1.0 / limit, null);
+                }
+                averageLatencyNanos = averageLatencyNanos == 0 ? latencyNanos
+                        : averageLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - averageLatencyNanos);
+            }
+
+            Waiter waiter;
+            while (inFlight < (int) limit && (waiter = waiters.pollFirst()) != null) {
+                if (waiter.grant.compareAndSet(null, new Permit())) {
+                    inFlight++;
+                    admitted.incrementAndGet();
+                    granted.add(waiter);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        granted.forEach(waiter -> waiter.sink.success(waiter.grant.get()));
+    }
+
+    private void setLimit(double newLimit, String reason) {
+        double previous = limit;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        if (reason != null && (int) limit != (int) previous) {
+            logger.info("Concurrency limit for {} lowered from {} to {} ({})", name, (int) previous, (int) limit, reason);
+        }
+    }
+
+    /**
+     * A queued request. Its grant is set exactly once: to its permit when admitted, or to
+     * {@code abandoned} when it is cancelled or times out first.
+     */
+    private record Waiter(MonoSink<Permit> sink, AtomicReference<Permit> grant) {
+        Waiter(MonoSink<Permit> sink) {
+            this(sink, new AtomicReference<>());
+        }
+    }
+
+    /**
+     * A request's place within the limit. Its latency sample and outcome are applied to the
+     * limit when it is released; only the first release counts.
+     */
+    public final class Permit {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile long latencyNanos;
+        private volatile boolean rateLimited;
+
+        /**
+         * Records the latency of the request, measured to its first response for streams.
+         */
+        public void recordLatency(long nanos) {
+            latencyNanos = nanos;
+        }
+
+        /**
+         * Records a failed request; only rate limiting affects the limit.
+         */
+        public void recordError(Throwable error) {
+            rateLimited = isRateLimited(error);
+            latencyNanos = 0;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimit.this.release(latencyNanos, rateLimited);
+            }
+        }
+    }
+}
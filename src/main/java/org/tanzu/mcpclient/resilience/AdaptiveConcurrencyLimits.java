@@ -0,0 +1,80 @@
+package org.tanzu.mcpclient.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.metrics.ConcurrencyLimitMetrics;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link AdaptiveConcurrencyLimit} per upstream model, created on first use with the
+ * shared settings.
+ */
+@Component
+public class AdaptiveConcurrencyLimits {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimits.class);
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueued;
+    private final Duration queueTimeout;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimits(@Value("${model.concurrency-limit.enabled:true}") boolean enabled,
+                                     @Value("${model.concurrency-limit.initial-limit:16}") int initialLimit,
+                                     @Value("${model.concurrency-limit.min-limit:2}") int minLimit,
+                                     @Value("${model.concurrency-limit.max-limit:200}") int maxLimit,
+                                     @Value("${model.concurrency-limit.max-queued:50}") int maxQueued,
+                                     @Value("${model.concurrency-limit.queue-timeout:2s}") Duration queueTimeout,
+                                     @Value("${model.concurrency-limit.latency-tolerance:2.0}") double latencyTolerance,
+                                     @Value("${model.concurrency-limit.backoff-ratio:0.9}") double backoffRatio) {
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueued = maxQueued;
+        this.queueTimeout = queueTimeout;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+
+        if (enabled) {
+            logger.info("Adaptive model concurrency limits configured: initial={}, min={}, max={}, maxQueued={}, queueTimeout={}",
+                    initialLimit, minLimit, maxLimit, maxQueued, queueTimeout);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public AdaptiveConcurrencyLimit forChatModel(String modelName) {
+        return get("chat:" + modelName);
+    }
+
+    public AdaptiveConcurrencyLimit forEmbeddingModel(String modelName) {
+        return get("embedding:" + modelName);
+    }
+
+    public List<ConcurrencyLimitMetrics> getMetrics() {
+        return limits.values().stream()
+                .map(AdaptiveConcurrencyLimit::getMetrics)
+                .sorted(Comparator.comparing(ConcurrencyLimitMetrics::name))
+                .toList();
+    }
+
+    private AdaptiveConcurrencyLimit get(String name) {
+        return limits.computeIfAbsent(name, key -> new AdaptiveConcurrencyLimit(key, initialLimit, minLimit, maxLimit,
+                maxQueued, queueTimeout, latencyTolerance, backoffRatio));
+    }
+}
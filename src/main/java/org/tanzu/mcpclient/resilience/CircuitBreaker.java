@@ -0,0 +1,288 @@
+package org.tanzu.mcpclient.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tanzu.mcpclient.metrics.CircuitBreakerMetrics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Circuit breaker for one remote endpoint. The outcomes of the last {@code windowSize}
+ * calls are kept; once at least {@code minimumCalls} of them are recorded and the share
+ * of failures reaches the threshold, the breaker opens and calls are refused without
+ * contacting the endpoint. After {@code openDuration} up to {@code halfOpenProbes} calls
+ * are let through: if all of them succeed the breaker closes again, a single failure
+ * opens it for another {@code openDuration}.
+ *
+ * <p>Every permission obtained from {@link #tryAcquirePermission()} must end with one of
+ * {@link Permission#onSuccess()}, {@link Permission#onFailure()} or
+ * {@link Permission#release()}; the latter for calls that ended without telling anything
+ * about the endpoint, such as cancelled streams. Outcomes of calls permitted before the
+ * breaker last changed state are ignored, so that a call that started while the breaker was
+ * closed is not taken for a half-open probe.</p>
+ */
+public final class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] window;
+    private int recorded;
+    private int nextOutcome;
+    private int failures;
+    private State state = State.CLOSED;
+    // Incremented on every state change; permissions of earlier generations are stale
+    private long generation;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+    private Instant lastStateChange = Instant.now();
+
+    private final AtomicLong notPermittedCalls = new AtomicLong();
+    private final AtomicLong timesOpened = new AtomicLong();
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                   Duration openDuration, int halfOpenProbes) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Tells whether a call would currently be permitted, without taking a permission.
+     */
+    public boolean isCallPermitted() {
+        lock.lock();
+        try {
+            return switch (state) {
+                case CLOSED -> true;
+                case OPEN -> System.nanoTime() - openedAt >= openDurationNanos;
+                case HALF_OPEN -> probesInFlight + probeSuccesses < halfOpenProbes;
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a permission for one call, or returns an empty result if the breaker refuses
+     * the call.
+     */
+    public Optional<Permission> tryAcquirePermission() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+                transitionTo(State.HALF_OPEN);
+            }
+            boolean permitted = switch (state) {
+                case CLOSED -> true;
+                case OPEN -> false;
+                case HALF_OPEN -> probesInFlight + probeSuccesses < halfOpenProbes;
+            };
+            if (!permitted) {
+                notPermittedCalls.incrementAndGet();
+                return Optional.empty();
+            }
+            if (state == State.HALF_OPEN) {
+                probesInFlight++;
+            }
+            return Optional.of(new Permission(generation));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code flux} under this breaker: it fails with an {@link IllegalStateException}
+     * without being subscribed if the breaker refuses the call, and its outcome is recorded
+     * when it terminates.
+     */
+    public <T> Flux<T> protect(Flux<T> flux) {
+        return Flux.defer(() -> {
+            Optional<Permission> permission = tryAcquirePermission();
+            if (permission.isEmpty()) {
+                return Flux.error(notPermitted());
+            }
+            return flux
+                    .doOnComplete(permission.get()::onSuccess)
+                    .doOnError(e -> permission.get().onFailure())
+                    .doOnCancel(permission.get()::release);
+        });
+    }
+
+    /**
+     * Runs {@code mono} under this breaker; errors that do not match {@code countsAsFailure}
+     * show that the endpoint is alive and are recorded as successes.
+     */
+    public <T> Mono<T> protect(Mono<T> mono, Predicate<Throwable> countsAsFailure) {
+        return Mono.defer(() -> {
+            Optional<Permission> permission = tryAcquirePermission();
+            if (permission.isEmpty()) {
+                return Mono.error(notPermitted());
+            }
+            return mono
+                    .doOnSuccess(value -> permission.get().onSuccess())
+                    .doOnError(e -> {
+                        if (countsAsFailure.test(e)) {
+                            permission.get().onFailure();
+                        } else {
+                            permission.get().onSuccess();
+                        }
+                    })
+                    .doOnCancel(permission.get()::release);
+        });
+    }
+
+    public IllegalStateException notPermitted() {
+        return new IllegalStateException("Circuit breaker for " + name + " is open");
+    }
+
+    public CircuitBreakerMetrics getMetrics() {
+        lock.lock();
+        try {
+            return new CircuitBreakerMetrics(
+                    name,
+                    state.name(),
+                    recorded > 0 ? (double) failures / recorded : 0.0,
+                    recorded,
+                    notPermittedCalls.get(),
+                    timesOpened.get(),
+                    lastStateChange
+            );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length && window[nextOutcome]) {
+            failures--;
+        }
+        window[nextOutcome] = failure;
+        if (failure) {
+            failures++;
+        }
+        nextOutcome = (nextOutcome + 1) % window.length;
+        recorded = Math.min(window.length, recorded + 1);
+    }
+
+    private void transitionTo(State newState) {
+        if (newState == State.OPEN) {
+            logger.warn("Circuit breaker for {} opened after {} of {} calls failed", name, failures, recorded);
+        } else {
+            logger.info("Circuit breaker for {} changed from {} to {}", name, state, newState);
+        }
+        state = newState;
+        generation++;
+        lastStateChange = Instant.now();
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (newState == State.OPEN) {
+            openedAt = System.nanoTime();
+            timesOpened.incrementAndGet();
+        } else if (newState == State.CLOSED) {
+            recorded = 0;
+            nextOutcome = 0;
+            failures = 0;
+        }
+    }
+
+    /**
+     * Permission for one call. Only the first outcome reported for it counts, and only if
+     * the breaker has not changed state since the permission was taken.
+     */
+    public final class Permission {
+
+        private final long permittedGeneration;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Permission(long permittedGeneration) {
+            this.permittedGeneration = permittedGeneration;
+        }
+
+        public void onSuccess() {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            lock.lock();
+            try {
+                if (permittedGeneration != generation) {
+                    return;
+                }
+                switch (state) {
+                    case CLOSED -> record(false);
+                    case HALF_OPEN -> {
+                        probesInFlight--;
+                        if (++probeSuccesses >= halfOpenProbes) {
+                            transitionTo(State.CLOSED);
+                        }
+                    }
+                    case OPEN -> { }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public void onFailure() {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            lock.lock();
+            try {
+                if (permittedGeneration != generation) {
+                    return;
+                }
+                switch (state) {
+                    case CLOSED -> {
+                        record(true);
+                        if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+                            transitionTo(State.OPEN);
+                        }
+                    }
+                    case HALF_OPEN -> transitionTo(State.OPEN);
+                    case OPEN -> { }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public void release() {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            lock.lock();
+            try {
+                if (permittedGeneration == generation && state == State.HALF_OPEN) {
+                    probesInFlight--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.tanzu.mcpclient.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.metrics.CircuitBreakerMetrics;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link CircuitBreaker} per remote endpoint, created on first use with the shared
+ * settings. MCP servers are keyed by URL and chat models by model name.
+ */
+@Component
+public class CircuitBreakers {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakers.class);
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenProbes;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakers(@Value("${circuit-breaker.window-size:20}") int windowSize,
+                           @Value("${circuit-breaker.minimum-calls:5}") int minimumCalls,
+                           @Value("${circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                           @Value("${circuit-breaker.open-duration:30s}") Duration openDuration,
+                           @Value("${circuit-breaker.half-open-probes:2}") int halfOpenProbes) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenProbes = halfOpenProbes;
+
+        logger.info("Circuit breakers configured: windowSize={}, minimumCalls={}, failureRateThreshold={}, openDuration={}, halfOpenProbes={}",
+                windowSize, this.minimumCalls, failureRateThreshold, openDuration, halfOpenProbes);
+    }
+
+    public CircuitBreaker forMcpServer(String serverUrl) {
+        return get("mcp:" + serverUrl);
+    }
+
+    public CircuitBreaker forChatModel(String modelName) {
+        return get("model:" + modelName);
+    }
+
+    /**
+     * Returns the state of every breaker that has been used so far.
+     */
+    public List<CircuitBreakerMetrics> getMetrics() {
+        return breakers.values().stream()
+                .map(CircuitBreaker::getMetrics)
+                .sorted(Comparator.comparing(CircuitBreakerMetrics::name))
+                .toList();
+    }
+
+    private CircuitBreaker get(String name) {
+        return breakers.computeIfAbsent(name, key -> new CircuitBreaker(key, windowSize, minimumCalls,
+                failureRateThreshold, openDuration, halfOpenProbes));
+    }
+}
@@ -0,0 +1,46 @@
+package org.tanzu.mcpclient.vectorstore;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.lang.NonNull;
+import org.tanzu.mcpclient.metrics.ChatStageTimers;
+
+/**
+ * {@link EmbeddingModel} handed to the vector store so that the embedding of search queries
+ * is recorded in the {@code chat.rag.embedding} histogram. The vector store embeds queries
+ * through {@link #embed(String)} and documents in batches, so only the former is timed.
+ */
+class QueryTimingEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final ChatStageTimers chatStageTimers;
+
+    QueryTimingEmbeddingModel(EmbeddingModel delegate, ChatStageTimers chatStageTimers) {
+        this.delegate = delegate;
+        this.chatStageTimers = chatStageTimers;
+    }
+
+    @Override
+    public float[] embed(@NonNull String text) {
+        return chatStageTimers.queryEmbedding().record(() -> delegate.embed(text));
+    }
+
+    @Override
+    @NonNull
+    public EmbeddingResponse call(@NonNull EmbeddingRequest request) {
+        return delegate.call(request);
+    }
+
+    @Override
+    @NonNull
+    public float[] embed(@NonNull Document document) {
+        return delegate.embed(document);
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+}
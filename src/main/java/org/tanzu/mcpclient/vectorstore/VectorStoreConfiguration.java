@@ -11,6 +11,7 @@ import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.*;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.tanzu.mcpclient.metrics.ChatStageTimers;
 import org.tanzu.mcpclient.model.ModelDiscoveryService;
 import org.springframework.lang.NonNull;
 
@@ -32,7 +33,7 @@ public class VectorStoreConfiguration {
 
     @Bean
     @Conditional(DatabaseAvailableCondition.class)
-    public VectorStore vectorStore(JdbcTemplate jdbcTemplate, EmbeddingModel embeddingModel) {
+    public VectorStore vectorStore(JdbcTemplate jdbcTemplate, EmbeddingModel embeddingModel, ChatStageTimers chatStageTimers) {
         // Default to nomic-embedding-text dimensions (768)
         int dimensions = 768;
         final int NOMIC_EMBEDDING_DIMENSION_SIZE = 768;
@@ -76,7 +77,7 @@ public class VectorStoreConfiguration {
             logger.info("No embedding model configured, using nomic default dimensions: {}", dimensions);
         }
 
-        return PgVectorStore.builder(jdbcTemplate, embeddingModel)
+        return PgVectorStore.builder(jdbcTemplate, new QueryTimingEmbeddingModel(embeddingModel, chatStageTimers))
                 .dimensions(dimensions)
                 .distanceType(COSINE_DISTANCE)
                 .indexType(HNSW)
@@ -0,0 +1,40 @@
+package org.tanzu.mcpclient.vectorstore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the metadata index of the {@code vector_store} table once the vector store has
+ * created the table. Document-scoped searches filter with {@code metadata::jsonb @@ jsonpath},
+ * where a {@code documentId IN (...)} filter becomes a chain of {@code ==} checks joined by
+ * {@code ||}; a GIN {@code jsonb_path_ops} index on the same expression answers these
+ * without a scan of the table, however many documents are selected.
+ */
+@Component
+@Conditional(DatabaseAvailableCondition.class)
+public class VectorStoreIndexInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(VectorStoreIndexInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VectorStoreIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        try {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS vector_store_metadata_idx " +
+                    "ON public.vector_store USING GIN ((metadata::jsonb) jsonb_path_ops)");
+            logger.info("Vector store metadata index is in place");
+        } catch (Exception e) {
+            // Searches still work without the index, only slower for large document selections
+            logger.warn("Could not create the vector store metadata index: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.tanzu.mcpclient.chat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatStreamAdmissionTests {
+
+    private static final Duration QUEUE_TIMEOUT = Duration.ofMillis(50);
+
+    @Test
+    void admitsUpToTheLimitAndQueuesTheRest() {
+        ChatStreamAdmission admission = admission(2, 1, 4, 4, Set.of());
+
+        assertThat(admission.enter("alice").orElseThrow().awaitAdmission()).isTrue();
+        assertThat(admission.enter("bob").orElseThrow().awaitAdmission()).isTrue();
+        assertThat(admission.enter("carol")).isPresent();
+        assertThat(admission.enter("dave")).isEmpty();
+
+        assertThat(admission.getMetrics().activeStreams()).isEqualTo(2);
+        assertThat(admission.getMetrics().queuedStreams()).isEqualTo(1);
+        assertThat(admission.getMetrics().rejectedTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void admitsOtherUsersBeforeFurtherStreamsOfABusyUser() {
+        ChatStreamAdmission admission = admission(1, 10, 4, 4, Set.of());
+        ChatStreamAdmission.Ticket alice1 = admission.enter("alice").orElseThrow();
+        ChatStreamAdmission.Ticket alice2 = admission.enter("alice").orElseThrow();
+        ChatStreamAdmission.Ticket bob = admission.enter("bob").orElseThrow();
+
+        alice1.release();
+
+        assertThat(bob.awaitAdmission()).isTrue();
+        assertThat(alice2.awaitAdmission()).isFalse();
+    }
+
+    @Test
+    void sharesSlotsByWeight() {
+        ChatStreamAdmission admission = admission(1, 10, 4, 4, Set.of("alice=3"));
+        ChatStreamAdmission.Ticket bob1 = admission.enter("bob").orElseThrow();
+        ChatStreamAdmission.Ticket alice1 = admission.enter("alice").orElseThrow();
+        ChatStreamAdmission.Ticket alice2 = admission.enter("alice").orElseThrow();
+        ChatStreamAdmission.Ticket alice3 = admission.enter("alice").orElseThrow();
+        ChatStreamAdmission.Ticket bob2 = admission.enter("bob").orElseThrow();
+
+        bob1.release();
+        assertThat(alice1.awaitAdmission()).isTrue();
+        alice1.release();
+        assertThat(alice2.awaitAdmission()).isTrue();
+        alice2.release();
+        assertThat(alice3.awaitAdmission()).isTrue();
+        alice3.release();
+        assertThat(bob2.awaitAdmission()).isTrue();
+    }
+
+    @Test
+    void limitsStreamsAndQueuePerUser() {
+        ChatStreamAdmission admission = admission(10, 10, 1, 1, Set.of());
+
+        assertThat(admission.enter("alice").orElseThrow().awaitAdmission()).isTrue();
+        ChatStreamAdmission.Ticket queued = admission.enter("alice").orElseThrow();
+        assertThat(admission.enter("alice")).isEmpty();
+        assertThat(admission.enter("bob").orElseThrow().awaitAdmission()).isTrue();
+
+        assertThat(queued.awaitAdmission()).isFalse();
+        assertThat(admission.getMetrics().queuedStreams()).isZero();
+    }
+
+    @Test
+    void forgetsUsersWithoutActiveOrWaitingStreams() {
+        ChatStreamAdmission admission = admission(1, 1, 4, 4, Set.of());
+        ChatStreamAdmission.Ticket alice = admission.enter("alice").orElseThrow();
+        ChatStreamAdmission.Ticket bob = admission.enter("bob").orElseThrow();
+        assertThat(admission.enter("carol")).isEmpty();
+        assertThat(users(admission)).containsExactlyInAnyOrder("alice", "bob");
+
+        assertThat(bob.awaitAdmission()).isFalse();
+        assertThat(users(admission)).containsExactlyInAnyOrder("alice");
+
+        alice.release();
+        alice.release();
+        assertThat(users(admission)).isEmpty();
+        assertThat(admission.getMetrics().activeStreams()).isZero();
+    }
+
+    @Test
+    void releasingAQueuedTicketLeavesTheQueue() {
+        ChatStreamAdmission admission = admission(1, 1, 4, 4, Set.of());
+        ChatStreamAdmission.Ticket alice = admission.enter("alice").orElseThrow();
+        ChatStreamAdmission.Ticket bob = admission.enter("bob").orElseThrow();
+
+        bob.release();
+        alice.release();
+
+        assertThat(admission.getMetrics().queuedStreams()).isZero();
+        assertThat(admission.getMetrics().activeStreams()).isZero();
+        assertThat(users(admission)).isEmpty();
+    }
+
+    private static ChatStreamAdmission admission(int maxConcurrentStreams, int maxQueuedStreams,
+                                                 int maxConcurrentStreamsPerUser, int maxQueuedStreamsPerUser,
+                                                 Set<String> userWeights) {
+        return new ChatStreamAdmission(maxConcurrentStreams, maxQueuedStreams, maxConcurrentStreamsPerUser,
+                maxQueuedStreamsPerUser, userWeights, QUEUE_TIMEOUT, Duration.ofSeconds(5));
+    }
+
+    private static Set<Object> users(ChatStreamAdmission admission) {
+        return Set.copyOf(((Map<?, ?>) ReflectionTestUtils.getField(admission, "users")).keySet());
+    }
+}
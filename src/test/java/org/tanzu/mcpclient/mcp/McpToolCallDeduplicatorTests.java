@@ -0,0 +1,188 @@
+package org.tanzu.mcpclient.mcp;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class McpToolCallDeduplicatorTests {
+
+    private static final String SERVER_URL = "http://mcp.example.com/mcp";
+
+    private final StubToolCallback tool = new StubToolCallback();
+    private final McpToolCallDeduplicator deduplicator =
+            new McpToolCallDeduplicator(true, Set.of(), Duration.ofSeconds(10));
+
+    @Test
+    void collapsesConcurrentIdenticalCalls() throws Exception {
+        ToolCallback wrapped = deduplicator.wrap(tool);
+        Caller leader = Caller.start(wrapped, "{\"a\":1,\"b\":2}");
+        CompletableFuture<String> leaderCall = tool.nextCall();
+        Caller follower = Caller.start(wrapped, "{ \"b\": 2, \"a\": 1 }");
+        follower.awaitWaiting();
+
+        leaderCall.complete("result");
+
+        assertThat(leader.result.get(10, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(follower.result.get(10, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(tool.calls.get()).isEqualTo(1);
+        assertThat(deduplicator.getMetrics().collapsedCalls()).isEqualTo(1);
+        assertThat(deduplicator.getMetrics().inFlightCalls()).isZero();
+    }
+
+    @Test
+    void followersShareTheLeadersFailure() throws Exception {
+        ToolCallback wrapped = deduplicator.wrap(tool);
+        Caller leader = Caller.start(wrapped, "{}");
+        CompletableFuture<String> leaderCall = tool.nextCall();
+        Caller follower = Caller.start(wrapped, "{}");
+        follower.awaitWaiting();
+
+        leaderCall.completeExceptionally(new IllegalStateException("server error"));
+
+        assertThat(leader.failure()).isInstanceOf(IllegalStateException.class);
+        assertThat(follower.failure()).isInstanceOf(IllegalStateException.class);
+        assertThat(tool.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void followerRetriesAfterTheLeaderIsCancelled() throws Exception {
+        ToolCallback wrapped = deduplicator.wrap(tool);
+        Caller leader = Caller.start(wrapped, "{}");
+        tool.nextCall();
+        Caller follower = Caller.start(wrapped, "{}");
+        follower.awaitWaiting();
+
+        leader.thread.interrupt();
+        assertThat(leader.failure()).isInstanceOf(ToolExecutionException.class)
+                .hasCauseInstanceOf(InterruptedException.class);
+
+        tool.nextCall().complete("retried");
+        assertThat(follower.result.get(10, TimeUnit.SECONDS)).isEqualTo("retried");
+        assertThat(tool.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotCollapseDifferentArguments() throws Exception {
+        ToolCallback wrapped = deduplicator.wrap(tool);
+        Caller first = Caller.start(wrapped, "{\"a\":1}");
+        CompletableFuture<String> firstCall = tool.nextCall();
+        Caller second = Caller.start(wrapped, "{\"a\":2}");
+        CompletableFuture<String> secondCall = tool.nextCall();
+
+        firstCall.complete("one");
+        secondCall.complete("two");
+
+        assertThat(first.result.get(10, TimeUnit.SECONDS)).isEqualTo("one");
+        assertThat(second.result.get(10, TimeUnit.SECONDS)).isEqualTo("two");
+    }
+
+    @Test
+    void leavesSequentialServersAndDisabledDeduplicationAlone() {
+        assertThat(new McpToolCallDeduplicator(true, Set.of(SERVER_URL), Duration.ofSeconds(10)).wrap(tool))
+                .isSameAs(tool);
+        assertThat(new McpToolCallDeduplicator(false, Set.of(), Duration.ofSeconds(10)).wrap(tool))
+                .isSameAs(tool);
+    }
+
+    /**
+     * A tool whose calls block until the test completes them. Interrupted calls fail like
+     * real MCP calls, with the interrupt as cause.
+     */
+    private static final class StubToolCallback implements McpServerToolCallback {
+
+        private final McpSchema.Tool tool = new McpSchema.Tool("lookup", "Looks something up", "{\"type\":\"object\"}");
+        private final ToolDefinition toolDefinition = ToolDefinition.builder()
+                .name("lookup")
+                .description("Looks something up")
+                .inputSchema("{\"type\":\"object\"}")
+                .build();
+        private final BlockingQueue<CompletableFuture<String>> pending = new LinkedBlockingQueue<>();
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String getServerUrl() {
+            return SERVER_URL;
+        }
+
+        @Override
+        public McpSchema.Tool getTool() {
+            return tool;
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return toolDefinition;
+        }
+
+        @Override
+        public String call(String toolInput) {
+            calls.incrementAndGet();
+            CompletableFuture<String> call = new CompletableFuture<>();
+            pending.add(call);
+            try {
+                return call.get();
+            } catch (InterruptedException e) {
+                throw new ToolExecutionException(toolDefinition, e);
+            } catch (ExecutionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+
+        CompletableFuture<String> nextCall() throws InterruptedException {
+            CompletableFuture<String> call = pending.poll(10, TimeUnit.SECONDS);
+            assertThat(call).as("tool call").isNotNull();
+            return call;
+        }
+    }
+
+    private record Caller(Thread thread, CompletableFuture<String> result) {
+
+        static Caller start(ToolCallback toolCallback, String toolInput) {
+            CompletableFuture<String> result = new CompletableFuture<>();
+            Thread thread = Thread.ofPlatform().daemon().start(() -> {
+                try {
+                    result.complete(toolCallback.call(toolInput));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            return new Caller(thread, result);
+        }
+
+        /**
+         * Waits until the caller blocks on the call it joined.
+         */
+        void awaitWaiting() throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (thread.getState() != Thread.State.TIMED_WAITING) {
+                assertThat(System.nanoTime()).as("caller waiting").isLessThan(deadline);
+                Thread.sleep(1);
+            }
+        }
+
+        Throwable failure() throws InterruptedException {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                return e.getCause();
+            } catch (TimeoutException e) {
+                throw new AssertionError("Call did not complete", e);
+            }
+            throw new AssertionError("Call did not fail");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.tanzu.mcpclient.mcp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ToolCallKeyTests {
+
+    @Test
+    void ignoresKeyOrderAndWhitespace() {
+        assertThat(ToolCallKey.canonicalize("{ \"b\": [1, {\"y\": 2, \"x\": 1}],\n \"a\": \"v\" }"))
+                .isEqualTo(ToolCallKey.canonicalize("{\"a\":\"v\",\"b\":[1,{\"x\":1,\"y\":2}]}"))
+                .isEqualTo("{\"a\":\"v\",\"b\":[1,{\"x\":1,\"y\":2}]}");
+    }
+
+    @Test
+    void keepsArrayOrder() {
+        assertThat(ToolCallKey.canonicalize("[1,2]")).isNotEqualTo(ToolCallKey.canonicalize("[2,1]"));
+    }
+
+    @Test
+    void treatsMissingArgumentsAsEmptyObject() {
+        assertThat(ToolCallKey.canonicalize(null)).isEqualTo("{}");
+        assertThat(ToolCallKey.canonicalize(" ")).isEqualTo("{}");
+    }
+
+    @Test
+    void keepsInvalidJsonAsItIs() {
+        assertThat(ToolCallKey.canonicalize("{not json")).isEqualTo("{not json");
+    }
+}
@@ -0,0 +1,150 @@
+package org.tanzu.mcpclient.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimitTests {
+
+    private static final long MILLIS = Duration.ofMillis(1).toNanos();
+
+    @Test
+    void queuesRequestsBeyondTheLimitAndShedsWhenTheQueueIsFull() {
+        AdaptiveConcurrencyLimit limit = limit(1, 1, Duration.ofMinutes(1));
+        AdaptiveConcurrencyLimit.Permit permit = limit.acquire().block();
+
+        CompletableFuture<AdaptiveConcurrencyLimit.Permit> queued = limit.acquire().toFuture();
+        assertThat(queued).isNotDone();
+        assertThatThrownBy(() -> limit.acquire().block()).isInstanceOf(IllegalStateException.class);
+
+        permit.release();
+        assertThat(queued).isCompleted();
+        assertThat(limit.getMetrics().inFlight()).isEqualTo(1);
+        assertThat(limit.getMetrics().queued()).isZero();
+        assertThat(limit.getMetrics().shedTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void shedsRequestsThatWaitLongerThanTheQueueTimeout() {
+        AdaptiveConcurrencyLimit limit = limit(1, 1, Duration.ofMillis(20));
+        limit.acquire().block();
+
+        CompletableFuture<AdaptiveConcurrencyLimit.Permit> queued = limit.acquire().toFuture();
+
+        assertThatThrownBy(queued::get).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(limit.getMetrics().queued()).isZero();
+        assertThat(limit.getMetrics().shedTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelledWaiterLeavesTheQueue() {
+        AdaptiveConcurrencyLimit limit = limit(1, 1, Duration.ofMinutes(1));
+        AdaptiveConcurrencyLimit.Permit permit = limit.acquire().block();
+
+        Disposable waiter = limit.acquire().subscribe();
+        assertThat(limit.getMetrics().queued()).isEqualTo(1);
+        waiter.dispose();
+        permit.release();
+
+        assertThat(limit.getMetrics().queued()).isZero();
+        assertThat(limit.getMetrics().inFlight()).isZero();
+    }
+
+    @Test
+    void releaseCountsOnce() {
+        AdaptiveConcurrencyLimit limit = limit(2, 0, Duration.ofMinutes(1));
+        AdaptiveConcurrencyLimit.Permit permit = limit.acquire().block();
+        limit.acquire().block();
+
+        permit.release();
+        permit.release();
+
+        assertThat(limit.getMetrics().inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void growsWhileTheLimitIsInUse() {
+        AdaptiveConcurrencyLimit limit = limit(1, 0, Duration.ofMinutes(1));
+
+        AdaptiveConcurrencyLimit.Permit permit = limit.acquire().block();
+        permit.recordLatency(10 * MILLIS);
+        permit.release();
+
+        assertThat(limit.getMetrics().limit()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotGrowWhileTheLimitIsNotInUse() {
+        AdaptiveConcurrencyLimit limit = limit(4, 0, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 10; i++) {
+            AdaptiveConcurrencyLimit.Permit permit = limit.acquire().block();
+            permit.recordLatency(10 * MILLIS);
+            permit.release();
+        }
+
+        assertThat(limit.getMetrics().limit()).isEqualTo(4);
+    }
+
+    @Test
+    void collapsesToTheMinimumOnSlowSamples() {
+        AdaptiveConcurrencyLimit limit = limit(16, 0, Duration.ofMinutes(1));
+        release(limit, 10 * MILLIS);
+
+        for (int i = 0; i < 5; i++) {
+            release(limit, 1000 * MILLIS);
+        }
+
+        assertThat(limit.getMetrics().limit()).isEqualTo(1);
+    }
+
+    @Test
+    void halvesWhenRateLimitedOrOverloaded() {
+        AdaptiveConcurrencyLimit limit = limit(16, 0, Duration.ofMinutes(1));
+
+        failWith(limit, new RuntimeException("429 - {\"error\":\"rate_limit_exceeded\"}"));
+        assertThat(limit.getMetrics().limit()).isEqualTo(8);
+        failWith(limit, WebClientResponseException.create(503, "Service Unavailable", null, null, null));
+        assertThat(limit.getMetrics().limit()).isEqualTo(4);
+        failWith(limit, new RuntimeException("500 - internal error"));
+        assertThat(limit.getMetrics().limit()).isEqualTo(4);
+
+        assertThat(limit.getMetrics().rateLimitedTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void recognisesRateLimitingInCauses() {
+        assertThat(AdaptiveConcurrencyLimit.isRateLimited(new IllegalStateException("retries exhausted",
+                HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null))))
+                .isTrue();
+        assertThat(AdaptiveConcurrencyLimit.isRateLimited(
+                HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", null, null, null)))
+                .isFalse();
+    }
+
+    private static AdaptiveConcurrencyLimit limit(int initialLimit, int maxQueued, Duration queueTimeout) {
+        return new AdaptiveConcurrencyLimit("test", initialLimit, 1, 100, maxQueued, queueTimeout, 2.0, 0.5);
+    }
+
+    private static void release(AdaptiveConcurrencyLimit limit, long latencyNanos) {
+        AdaptiveConcurrencyLimit.Permit permit = limit.acquire().block();
+        permit.recordLatency(latencyNanos);
+        permit.release();
+    }
+
+    private static void failWith(AdaptiveConcurrencyLimit limit, Throwable error) {
+        AdaptiveConcurrencyLimit.Permit permit = limit.acquire().block();
+        permit.recordError(error);
+        permit.release();
+    }
+}
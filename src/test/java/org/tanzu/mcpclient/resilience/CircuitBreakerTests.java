@@ -0,0 +1,134 @@
+package org.tanzu.mcpclient.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTests {
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 10, 4, 0.5, Duration.ofMinutes(1), 1);
+
+        fail(circuitBreaker, 3);
+
+        assertThat(circuitBreaker.getMetrics().state()).isEqualTo("CLOSED");
+        assertThat(circuitBreaker.tryAcquirePermission()).isPresent();
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 4, 4, 0.5, Duration.ofMinutes(1), 1);
+
+        succeed(circuitBreaker, 2);
+        fail(circuitBreaker, 2);
+
+        assertThat(circuitBreaker.getMetrics().state()).isEqualTo("OPEN");
+        assertThat(circuitBreaker.isCallPermitted()).isFalse();
+        assertThat(circuitBreaker.tryAcquirePermission()).isEmpty();
+        assertThat(circuitBreaker.getMetrics().notPermittedCalls()).isEqualTo(1);
+        assertThat(circuitBreaker.getMetrics().timesOpened()).isEqualTo(1);
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 4, 4, 0.5, Duration.ofMinutes(1), 1);
+
+        fail(circuitBreaker, 1);
+        succeed(circuitBreaker, 4);
+        fail(circuitBreaker, 1);
+
+        assertThat(circuitBreaker.getMetrics().state()).isEqualTo("CLOSED");
+        assertThat(circuitBreaker.getMetrics().failureRate()).isEqualTo(0.25);
+    }
+
+    @Test
+    void closesAfterAllHalfOpenProbesSucceed() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 2, 2, 0.5, Duration.ZERO, 2);
+        fail(circuitBreaker, 2);
+
+        CircuitBreaker.Permission first = circuitBreaker.tryAcquirePermission().orElseThrow();
+        CircuitBreaker.Permission second = circuitBreaker.tryAcquirePermission().orElseThrow();
+
+        assertThat(circuitBreaker.getMetrics().state()).isEqualTo("HALF_OPEN");
+        assertThat(circuitBreaker.tryAcquirePermission()).isEmpty();
+
+        first.onSuccess();
+        assertThat(circuitBreaker.getMetrics().state()).isEqualTo("HALF_OPEN");
+        second.onSuccess();
+        assertThat(circuitBreaker.getMetrics().state()).isEqualTo("CLOSED");
+        assertThat(circuitBreaker.getMetrics().recordedCalls()).isZero();
+    }
+
+    @Test
+    void reopensWhenHalfOpenProbeFails() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 2, 2, 0.5, Duration.ZERO, 2);
+        fail(circuitBreaker, 2);
+
+        circuitBreaker.tryAcquirePermission().orElseThrow().onFailure();
+
+        assertThat(circuitBreaker.getMetrics().state()).isEqualTo("OPEN");
+        assertThat(circuitBreaker.getMetrics().timesOpened()).isEqualTo(2);
+    }
+
+    @Test
+    void releasedProbeFreesItsSlot() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 2, 2, 0.5, Duration.ZERO, 1);
+        fail(circuitBreaker, 2);
+
+        CircuitBreaker.Permission probe = circuitBreaker.tryAcquirePermission().orElseThrow();
+        assertThat(circuitBreaker.tryAcquirePermission()).isEmpty();
+
+        probe.release();
+        probe.release();
+
+        CircuitBreaker.Permission nextProbe = circuitBreaker.tryAcquirePermission().orElseThrow();
+        assertThat(circuitBreaker.tryAcquirePermission()).isEmpty();
+        nextProbe.onSuccess();
+        assertThat(circuitBreaker.getMetrics().state()).isEqualTo("CLOSED");
+    }
+
+    @Test
+    void ignoresCallsThatStartedBeforeHalfOpen() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 2, 2, 0.5, Duration.ZERO, 1);
+        CircuitBreaker.Permission slowSuccess = circuitBreaker.tryAcquirePermission().orElseThrow();
+        CircuitBreaker.Permission slowFailure = circuitBreaker.tryAcquirePermission().orElseThrow();
+        fail(circuitBreaker, 2);
+
+        CircuitBreaker.Permission probe = circuitBreaker.tryAcquirePermission().orElseThrow();
+        slowSuccess.onSuccess();
+        slowFailure.onFailure();
+
+        assertThat(circuitBreaker.getMetrics().state()).isEqualTo("HALF_OPEN");
+        assertThat(circuitBreaker.tryAcquirePermission()).isEmpty();
+
+        probe.onSuccess();
+        assertThat(circuitBreaker.getMetrics().state()).isEqualTo("CLOSED");
+    }
+
+    @Test
+    void countsOnlyTheFirstOutcomeOfAPermission() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 4, 2, 0.5, Duration.ofMinutes(1), 1);
+
+        CircuitBreaker.Permission permission = circuitBreaker.tryAcquirePermission().orElseThrow();
+        permission.onFailure();
+        permission.onFailure();
+
+        assertThat(circuitBreaker.getMetrics().recordedCalls()).isEqualTo(1);
+        assertThat(circuitBreaker.getMetrics().state()).isEqualTo("CLOSED");
+    }
+
+    private static void succeed(CircuitBreaker circuitBreaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            circuitBreaker.tryAcquirePermission().orElseThrow().onSuccess();
+        }
+    }
+
+    private static void fail(CircuitBreaker circuitBreaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            circuitBreaker.tryAcquirePermission().orElseThrow().onFailure();
+        }
+    }
+}